@@ -0,0 +1,13 @@
+package com.flavio.libraryapi.api.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteDTO {
+
+    private long deleted;
+
+}
@@ -0,0 +1,15 @@
+package com.flavio.libraryapi.api.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogStatsDTO {
+
+    private long totalBooks;
+
+    private long totalAuthors;
+
+}
@@ -1,14 +1,34 @@
 package com.flavio.libraryapi.api.exception;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flavio.libraryapi.exception.BookNotFoundException;
 import com.flavio.libraryapi.exception.BusinessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 public class ApiErrors {
 
+    /**
+     * Corpos já serializados das mensagens fixas, as das exceções compartilhadas.
+     * Mensagens montadas com dados da requisição não entram aqui e geram um corpo novo.
+     */
+    private static final Map<String, byte[]> FIXED_BODIES = serialize(
+            BookNotFoundException.INSTANCE,
+            BusinessException.INVALID_ISBN,
+            BusinessException.DUPLICATED_ISBN,
+            BusinessException.MISSING_DELETE_FILTER,
+            BusinessException.PAGE_OUT_OF_WINDOW );
+
     private List<String> errors;
 
     public ApiErrors(BindingResult bindingResult) {
@@ -20,6 +40,31 @@ public class ApiErrors {
         this.errors = Arrays.asList(ex.getMessage());
     }
 
+    private ApiErrors(String message) {
+        this.errors = Collections.singletonList(message);
+    }
+
+    public static ResponseEntity<Object> response(HttpStatus status, String message) {
+        byte[] body = message == null ? null : FIXED_BODIES.get(message);
+        if ( body != null ) {
+            return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(body);
+        }
+        return ResponseEntity.status(status).body( new ApiErrors(message) );
+    }
+
+    private static Map<String, byte[]> serialize(RuntimeException... fixed) {
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, byte[]> bodies = new HashMap<>();
+        for ( RuntimeException ex : fixed ) {
+            try {
+                bodies.put( ex.getMessage(), mapper.writeValueAsBytes(new ApiErrors(ex.getMessage())) );
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return Collections.unmodifiableMap(bodies);
+    }
+
     public List<String> getErrors() {
         return errors;
     }
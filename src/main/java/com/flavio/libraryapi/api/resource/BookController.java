@@ -1,7 +1,9 @@
 package com.flavio.libraryapi.api.resource;
 
 import com.flavio.libraryapi.api.dto.BookDTO;
+import com.flavio.libraryapi.api.dto.BulkDeleteDTO;
 import com.flavio.libraryapi.api.exception.ApiErrors;
+import com.flavio.libraryapi.exception.BookNotFoundException;
 import com.flavio.libraryapi.exception.BusinessException;
 import com.flavio.libraryapi.model.entity.Book;
 import com.flavio.libraryapi.service.BookService;
@@ -10,13 +12,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
 
 import javax.validation.Valid;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @RestController
@@ -47,33 +51,50 @@ public class BookController {
     public BookDTO get( @PathVariable Long id ) {
         return service.getById(id)
                 .map( book -> modelMapper.map(book, BookDTO.class) )
-                .orElseThrow( () -> new ResponseStatusException(HttpStatus.NOT_FOUND) );
+                .orElseThrow( () -> BookNotFoundException.INSTANCE );
+    }
+
+    @GetMapping("isbn/{isbn}")
+    public BookDTO getByIsbn( @PathVariable String isbn ) {
+        return service.getByIsbn(isbn)
+                .map( book -> modelMapper.map(book, BookDTO.class) )
+                .orElseThrow( () -> BookNotFoundException.INSTANCE );
     }
 
     @DeleteMapping("{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete( @PathVariable Long id ) {
+        if ( !service.deleteById(id) ) {
+            throw BookNotFoundException.INSTANCE;
+        }
+    }
 
-        Book book = service.getById(id).orElseThrow( () -> new ResponseStatusException(HttpStatus.NOT_FOUND) );
-
-        service.delete(book);
+    @DeleteMapping
+    public BulkDeleteDTO deleteAll( @RequestParam(value = "ids", required = false) List<Long> ids, BookDTO dto ) {
+        long deleted = ids != null
+                ? service.deleteByIds(ids)
+                : service.deleteByFilter( modelMapper.map(dto, Book.class) );
+        return BulkDeleteDTO.builder().deleted(deleted).build();
     }
 
     @PutMapping("{id}")
-    public BookDTO update( @PathVariable Long id, BookDTO dto ) {
-        return service.getById(id).map( book -> {
-            book.setAuthor(dto.getAuthor());
-            book.setTitle(dto.getTitle());
-            book = service.update(book);
-            return modelMapper.map(book, BookDTO.class);
-        }).orElseThrow( () -> new ResponseStatusException(HttpStatus.NOT_FOUND) );
+    public CompletableFuture<BookDTO> update( @PathVariable Long id, BookDTO dto ) {
+        Book book = service.getById(id).orElseThrow( () -> BookNotFoundException.INSTANCE );
+        book.setAuthor(dto.getAuthor());
+        book.setTitle(dto.getTitle());
+        return service.updateAsync(book).thenApply( updated -> modelMapper.map(updated, BookDTO.class) );
     }
 
     @GetMapping
-    public Page<BookDTO> find( BookDTO dto, Pageable pageRequest ) {
+    public Page<?> find( BookDTO dto, Pageable pageRequest,
+                         @RequestParam(value = "fields", required = false) Set<String> fields ) {
 
         Book filter = modelMapper.map( dto, Book.class);
 
+        if ( fields != null ) {
+            return service.find(filter, pageRequest, fields);
+        }
+
         Page<Book> result = service.find(filter, pageRequest);
 
         List<BookDTO> list = result.getContent()
@@ -84,6 +105,12 @@ public class BookController {
         return new PageImpl<BookDTO>( list, pageRequest, result.getTotalElements() );
     }
 
+    @GetMapping("suggest")
+    public List<String> suggest( @RequestParam("q") String prefix,
+                                 @RequestParam(value = "limit", defaultValue = "10") int limit ) {
+        return service.suggest(prefix, limit);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ApiErrors handleValidationExceptions (MethodArgumentNotValidException ex) {
@@ -92,8 +119,12 @@ public class BookController {
     }
 
     @ExceptionHandler(BusinessException.class)
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ApiErrors handleBusinessExceptions (BusinessException ex) {
-        return new ApiErrors(ex);
+    public ResponseEntity<Object> handleBusinessExceptions (BusinessException ex) {
+        return ApiErrors.response(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(BookNotFoundException.class)
+    public ResponseEntity<Object> handleNotFoundExceptions (BookNotFoundException ex) {
+        return ApiErrors.response(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 }
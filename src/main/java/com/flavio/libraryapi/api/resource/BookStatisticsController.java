@@ -0,0 +1,44 @@
+package com.flavio.libraryapi.api.resource;
+
+import com.flavio.libraryapi.api.dto.AuthorCountDTO;
+import com.flavio.libraryapi.api.dto.CatalogStatsDTO;
+import com.flavio.libraryapi.service.stats.BookStatistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/books/stats")
+public class BookStatisticsController {
+
+    private BookStatistics statistics;
+
+    public BookStatisticsController(BookStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @GetMapping
+    public CatalogStatsDTO catalog() {
+        return CatalogStatsDTO.builder()
+                .totalBooks( statistics.totalBooks() )
+                .totalAuthors( statistics.totalAuthors() )
+                .build();
+    }
+
+    @GetMapping("authors")
+    public List<AuthorCountDTO> topAuthors( @RequestParam(value = "limit", defaultValue = "10") int limit ) {
+        return statistics.topAuthors( Math.max(0, limit) ).stream()
+                .map( count -> AuthorCountDTO.builder().author(count.getAuthor()).books(count.getBooks()).build() )
+                .collect(Collectors.toList());
+    }
+
+    @GetMapping("authors/{author}")
+    public AuthorCountDTO author( @PathVariable String author ) {
+        return AuthorCountDTO.builder().author(author).books( statistics.countByAuthor(author) ).build();
+    }
+}
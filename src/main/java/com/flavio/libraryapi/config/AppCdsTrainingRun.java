@@ -0,0 +1,44 @@
+package com.flavio.libraryapi.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * Execução de treino do arquivo AppCDS: assim que a aplicação fica pronta faz um
+ * GET /api/books/{id}, para carregar também as classes do caminho de uma
+ * requisição, e encerra a JVM para que -XX:ArchiveClassesAtExit grave o arquivo.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "library.appcds", name = "training-run", havingValue = "true")
+public class AppCdsTrainingRun implements ApplicationListener<ApplicationReadyEvent> {
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if ( event.getApplicationContext() instanceof WebServerApplicationContext ) {
+            int port = ((WebServerApplicationContext) event.getApplicationContext()).getWebServer().getPort();
+            request("http://localhost:" + port + "/api/books/1");
+        }
+        log.info("Execução de treino AppCDS concluída; encerrando a aplicação.");
+        System.exit( SpringApplication.exit(event.getApplicationContext()) );
+    }
+
+    private void request(String url) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+            log.info("Treino AppCDS: GET {} -> {}", url, connection.getResponseCode());
+            connection.disconnect();
+        } catch (IOException ex) {
+            log.warn("Treino AppCDS: GET {} falhou.", url, ex);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.flavio.libraryapi.config;
+
+import com.flavio.libraryapi.api.dto.BookDTO;
+import com.flavio.libraryapi.model.entity.Book;
+import com.flavio.libraryapi.service.BookService;
+import lombok.extern.slf4j.Slf4j;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.io.Resource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Aquece a aplicação antes do servidor web começar a aceitar requisições.
+ *
+ * No Boot 2.2 o ServletWebServerApplicationContext só inicia o Tomcat no fim do
+ * finishRefresh, depois de todos os SmartLifecycle, então o tráfego só chega
+ * depois que o pool de conexões, os type maps do ModelMapper, os planos de
+ * consulta do Hibernate e o JIT já passaram pelos caminhos de get e find.
+ *
+ * A amostra repetida vem de library.warmup.recording, um access log gravado em
+ * produção ({@link WarmUpRecording}); os livros quentes são os ids mais pedidos nele.
+ * A primeira rodada já deixa esses livros no IsbnCache (pelos ISBNs deles e os da
+ * gravação) e os ids gravados que não existem mais no MissingBookCache. Sem gravação,
+ * a amostra são os primeiros livros por id e os termos de library.warmup.filters.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "library.warmup", name = "enabled", havingValue = "true")
+public class BookWarmUp implements SmartLifecycle {
+
+    private BookService service;
+
+    private ModelMapper modelMapper;
+
+    private DataSource dataSource;
+
+    @Value("${library.warmup.iterations:200}")
+    private int iterations;
+
+    @Value("${library.warmup.hot-books:50}")
+    private int hotBooks;
+
+    @Value("${library.warmup.connections:10}")
+    private int connections;
+
+    @Value("${library.warmup.filters:a,e,o}")
+    private List<String> filters;
+
+    @Value("${library.warmup.recording:}")
+    private Resource recording;
+
+    private volatile boolean running;
+
+    public BookWarmUp(BookService service, ModelMapper modelMapper, DataSource dataSource) {
+        this.service = service;
+        this.modelMapper = modelMapper;
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void start() {
+        long begin = System.nanoTime();
+
+        fillConnectionPool();
+
+        WarmUpRecording sample = loadSample();
+        for ( int i = 0; i < iterations; i++ ) {
+            replay(sample);
+        }
+
+        long warmUpMillis = (System.nanoTime() - begin) / 1_000_000;
+
+        long sampleBegin = System.nanoTime();
+        replay(sample);
+        long sampleMicros = (System.nanoTime() - sampleBegin) / 1_000;
+
+        log.info("Warm-up concluído em {} ms ({} iterações, {} livros, {} ISBNs, {} filtros). "
+                        + "Latência pós warm-up: {} us por rodada.",
+                warmUpMillis, iterations, sample.getHotIds().size(), sample.getIsbns().size(),
+                sample.getFilters().size(), sampleMicros);
+
+        running = true;
+    }
+
+    private void fillConnectionPool() {
+        List<Connection> opened = new ArrayList<>();
+        try {
+            for ( int i = 0; i < connections; i++ ) {
+                opened.add(dataSource.getConnection());
+            }
+        } catch (SQLException ex) {
+            log.warn("Não foi possível abrir todas as conexões do warm-up: {}", ex.getMessage());
+        } finally {
+            opened.forEach(this::closeQuietly);
+        }
+    }
+
+    private void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ex) {
+            log.debug("Falha ao devolver conexão do warm-up.", ex);
+        }
+    }
+
+    private WarmUpRecording loadSample() {
+        if ( recording != null && recording.exists() ) {
+            try {
+                WarmUpRecording sample = WarmUpRecording.read(recording, hotBooks);
+                log.info("Warm-up a partir da gravação {}.", recording.getDescription());
+                return sample;
+            } catch (IOException ex) {
+                log.warn("Não foi possível ler a gravação do warm-up {}: {}", recording.getDescription(), ex.getMessage());
+            }
+        } else if ( recording != null ) {
+            log.warn("Gravação do warm-up {} não encontrada.", recording.getDescription());
+        }
+        List<Book> first = service.find(new Book(), PageRequest.of(0, hotBooks, Sort.by("id"))).getContent();
+        List<Book> termFilters = new ArrayList<>();
+        for ( String term : filters ) {
+            termFilters.add( Book.builder().title(term).build() );
+            termFilters.add( Book.builder().author(term).build() );
+        }
+        return new WarmUpRecording(
+                first.stream().map(Book::getId).collect(Collectors.toList()),
+                new ArrayList<>(),
+                termFilters );
+    }
+
+    private void replay(WarmUpRecording sample) {
+        for ( Long id : sample.getHotIds() ) {
+            service.getById(id).ifPresent( book -> {
+                modelMapper.map(book, BookDTO.class);
+                if ( book.getIsbn() != null ) {
+                    service.getByIsbn(book.getIsbn());
+                }
+            });
+        }
+        sample.getIsbns().forEach( isbn -> service.getByIsbn(isbn).map( book -> modelMapper.map(book, BookDTO.class) ) );
+        sample.getFilters().forEach( filter -> toDtos( service.find(filter, PageRequest.of(0, 20)) ) );
+    }
+
+    private void toDtos(Page<Book> page) {
+        page.getContent().forEach( book -> modelMapper.map(book, BookDTO.class) );
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // última fase entre os lifecycles; o web server sobe depois de todos eles
+        return Integer.MAX_VALUE - 2;
+    }
+}
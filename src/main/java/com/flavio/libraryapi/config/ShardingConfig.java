@@ -0,0 +1,77 @@
+package com.flavio.libraryapi.config;
+
+import com.flavio.libraryapi.model.id.SnowflakeIdGenerator;
+import com.flavio.libraryapi.model.repository.BookCatalogScan;
+import com.flavio.libraryapi.model.repository.IsbnRouteRepository;
+import com.flavio.libraryapi.model.repository.ShardedBookRepository;
+import com.flavio.libraryapi.service.BookService;
+import com.flavio.libraryapi.service.impl.ShardedBookService;
+import com.flavio.libraryapi.service.suggest.BookSuggestIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Modo particionado: com library.sharding.enabled=true o BookService passa a
+ * gravar os livros nos bancos de library.sharding.urls, escolhendo o shard pelo id.
+ * O índice de ISBN fica no banco principal, e o suggest e as estatísticas são
+ * reconstruídos a partir dos shards.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "library.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public ShardedBookRepository shardedBookRepository(DataSourceProperties properties,
+                                                       @Value("${library.sharding.urls}") List<String> urls) {
+        ResourceDatabasePopulator schema = new ResourceDatabasePopulator( new ClassPathResource("schema-sharding.sql") );
+        List<DataSource> shards = new ArrayList<>();
+        for ( String url : urls ) {
+            DataSource shard = DataSourceBuilder.create()
+                    .url(url)
+                    .username(properties.determineUsername())
+                    .password(properties.determinePassword())
+                    .build();
+            schema.execute(shard);
+            shards.add(shard);
+        }
+        return new ShardedBookRepository(shards);
+    }
+
+    @Bean
+    public IsbnRouteRepository isbnRouteRepository(DataSource dataSource) {
+        new ResourceDatabasePopulator( new ClassPathResource("schema-sharding-routes.sql") ).execute(dataSource);
+        return new IsbnRouteRepository(dataSource);
+    }
+
+    @Bean
+    @Primary
+    public BookCatalogScan shardedBookCatalogScan(ShardedBookRepository repository) {
+        return repository::forEachBook;
+    }
+
+    @Bean
+    public SnowflakeIdGenerator snowflakeIdGenerator(@Value("${library.sharding.node-id:0}") long nodeId) {
+        return new SnowflakeIdGenerator(nodeId);
+    }
+
+    @Bean
+    @Primary
+    public BookService shardedBookService(ShardedBookRepository repository, IsbnRouteRepository isbnRoutes,
+                                          SnowflakeIdGenerator idGenerator, BookSuggestIndex suggestIndex,
+                                          ApplicationEventPublisher eventPublisher,
+                                          @Value("${library.sharding.max-window:10000}") int maxWindow) {
+        return new ShardedBookService(repository, isbnRoutes, idGenerator, suggestIndex, eventPublisher, maxWindow);
+    }
+}
@@ -0,0 +1,107 @@
+package com.flavio.libraryapi.config;
+
+import com.flavio.libraryapi.model.entity.Book;
+import com.flavio.libraryapi.service.isbn.Isbn;
+import org.springframework.core.io.Resource;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Amostra de tráfego gravado que o {@link BookWarmUp} repete. Aceita um access log
+ * do Tomcat (ou qualquer arquivo com uma linha de requisição por linha) e considera
+ * só os GET de /api/books: os ids, os ISBNs e os filtros do find mais pedidos, até
+ * {@code limit} de cada.
+ */
+public class WarmUpRecording {
+
+    private static final Pattern REQUEST = Pattern.compile("GET (/api/books[^\\s\"]*)");
+
+    private List<Long> hotIds;
+
+    private List<String> isbns;
+
+    private List<Book> filters;
+
+    WarmUpRecording(List<Long> hotIds, List<String> isbns, List<Book> filters) {
+        this.hotIds = hotIds;
+        this.isbns = isbns;
+        this.filters = filters;
+    }
+
+    public static WarmUpRecording read(Resource resource, int limit) throws IOException {
+        Map<Long, Integer> ids = new HashMap<>();
+        Map<String, Integer> isbns = new HashMap<>();
+        Map<Book, Integer> filters = new HashMap<>();
+        try ( BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) ) {
+            String line;
+            while ( (line = reader.readLine()) != null ) {
+                Matcher request = REQUEST.matcher(line);
+                if ( request.find() ) {
+                    count( UriComponentsBuilder.fromUriString(request.group(1)).build(), ids, isbns, filters );
+                }
+            }
+        }
+        return new WarmUpRecording( top(ids, limit), top(isbns, limit), top(filters, limit) );
+    }
+
+    private static void count(UriComponents uri, Map<Long, Integer> ids, Map<String, Integer> isbns,
+                              Map<Book, Integer> filters) {
+        List<String> path = uri.getPathSegments();
+        if ( path.size() == 2 ) {
+            MultiValueMap<String, String> query = uri.getQueryParams();
+            Book filter = Book.builder()
+                    .title( param(query, "title") )
+                    .author( param(query, "author") )
+                    .isbn( param(query, "isbn") )
+                    .build();
+            filters.merge(filter, 1, Integer::sum);
+        } else if ( path.size() == 3 && path.get(2).matches("\\d{1,18}") ) {
+            ids.merge(Long.valueOf(path.get(2)), 1, Integer::sum);
+        } else if ( path.size() == 4 && path.get(2).equals("isbn") ) {
+            String isbn = UriUtils.decode(path.get(3), StandardCharsets.UTF_8);
+            if ( Isbn.toKeyOrNull(isbn) != null ) {
+                isbns.merge(isbn, 1, Integer::sum);
+            }
+        }
+    }
+
+    private static String param(MultiValueMap<String, String> query, String name) {
+        String value = query.getFirst(name);
+        return value == null ? null : UriUtils.decode(value, StandardCharsets.UTF_8);
+    }
+
+    private static <K> List<K> top(Map<K, Integer> counts, int limit) {
+        return counts.entrySet().stream()
+                .sorted( Collections.reverseOrder(Map.Entry.comparingByValue()) )
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    public List<Long> getHotIds() {
+        return hotIds;
+    }
+
+    public List<String> getIsbns() {
+        return isbns;
+    }
+
+    public List<Book> getFilters() {
+        return filters;
+    }
+}
@@ -0,0 +1,95 @@
+package com.flavio.libraryapi.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Liga o roteamento primário/réplicas quando library.datasource.routing.enabled=true.
+ * O primário usa as propriedades spring.datasource.*; as réplicas usam as urls de
+ * library.datasource.routing.replica-urls com as mesmas credenciais; todos os pools
+ * recebem as propriedades spring.datasource.hikari.*.
+ *
+ * Sem library.datasource.routing.token-secret cada instância sorteia a sua chave e
+ * só reconhece os tokens que ela mesma emitiu; com várias instâncias atrás do
+ * gateway a chave precisa ser configurada e igual em todas.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "library.datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(
+            @Value("${library.datasource.routing.stickiness-ms:1000}") long stickinessMillis) {
+        return new ReadYourWritesTracker(stickinessMillis);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReadYourWritesTracker tracker,
+            @Value("${library.datasource.routing.token-secret:}") String tokenSecret) {
+        byte[] secret;
+        if ( StringUtils.hasText(tokenSecret) ) {
+            secret = tokenSecret.getBytes(StandardCharsets.UTF_8);
+        } else {
+            secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+        }
+        return new ReadYourWritesFilter(tracker, secret);
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 DataSourceProperties properties, ReadYourWritesTracker tracker, Environment environment,
+                                 @Value("${library.datasource.routing.replica-urls:}") List<String> replicaUrls) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReplicaRoutingDataSource.PRIMARY, primary);
+
+        List<String> replicas = new ArrayList<>();
+        for ( String url : replicaUrls ) {
+            String key = "replica-" + replicas.size();
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(url)
+                    .username(properties.determineUsername())
+                    .password(properties.determinePassword())
+                    .build();
+            Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            replica.setPoolName(key);
+            targets.put(key, replica);
+            replicas.add(key);
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(replicas, tracker);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,115 @@
+package com.flavio.libraryapi.config.datasource;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Depois de uma escrita devolve ao cliente um token assinado com o instante dela,
+ * no header {@value #TOKEN_HEADER} e no cookie {@value #TOKEN_COOKIE}. Enquanto o
+ * cliente reenviar um token válido e recente, as leituras dele vão ao primário.
+ *
+ * A aderência não depende do endereço de origem nem de um id informado pelo
+ * cliente: atrás do gateway todos chegam do mesmo endereço, e um token só fixa no
+ * primário quem o apresenta. O gateway precisa repassar o header e o cookie, e
+ * as instâncias atrás dele precisam compartilhar library.datasource.routing.token-secret.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String TOKEN_HEADER = "X-Read-Your-Writes";
+
+    public static final String TOKEN_COOKIE = "read-your-writes";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private ReadYourWritesTracker tracker;
+
+    private SecretKeySpec key;
+
+    public ReadYourWritesFilter(ReadYourWritesTracker tracker, byte[] secret) {
+        this.tracker = tracker;
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        tracker.bind( lastWrite(request), wroteAt -> sendToken(response, wroteAt) );
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            tracker.unbind();
+        }
+    }
+
+    private Long lastWrite(HttpServletRequest request) {
+        String token = request.getHeader(TOKEN_HEADER);
+        if ( token == null ) {
+            Cookie cookie = WebUtils.getCookie(request, TOKEN_COOKIE);
+            token = cookie == null ? null : cookie.getValue();
+        }
+        return token == null ? null : verify(token);
+    }
+
+    private void sendToken(HttpServletResponse response, long wroteAt) {
+        if ( response.isCommitted() ) {
+            return;
+        }
+        String token = sign(wroteAt);
+        response.setHeader(TOKEN_HEADER, token);
+        Cookie cookie = new Cookie(TOKEN_COOKIE, token);
+        cookie.setHttpOnly(true);
+        cookie.setPath("/");
+        cookie.setMaxAge( (int) Math.max(1, (tracker.getStickinessMillis() + 999) / 1000) );
+        response.addCookie(cookie);
+    }
+
+    String sign(long wroteAt) {
+        String timestamp = Long.toString(wroteAt);
+        return timestamp + "." + Base64.getUrlEncoder().withoutPadding().encodeToString( mac(timestamp) );
+    }
+
+    Long verify(String token) {
+        int separator = token.indexOf('.');
+        if ( separator <= 0 ) {
+            return null;
+        }
+        String timestamp = token.substring(0, separator);
+        byte[] signature;
+        try {
+            signature = Base64.getUrlDecoder().decode( token.substring(separator + 1) );
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+        if ( !MessageDigest.isEqual(signature, mac(timestamp)) ) {
+            return null;
+        }
+        try {
+            return Long.parseLong(timestamp);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private byte[] mac(String value) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal( value.getBytes(StandardCharsets.UTF_8) );
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
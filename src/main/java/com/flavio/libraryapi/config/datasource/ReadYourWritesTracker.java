@@ -0,0 +1,113 @@
+package com.flavio.libraryapi.config.datasource;
+
+import com.flavio.libraryapi.service.event.BookEvent;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.function.LongConsumer;
+
+/**
+ * Mantém, por requisição, o instante da última escrita do cliente para que as
+ * leituras dele continuem no primário enquanto as réplicas podem estar atrasadas.
+ * O instante não fica guardado no servidor: chega em cada requisição pelo token
+ * assinado que o {@link ReadYourWritesFilter} devolveu na escrita anterior.
+ */
+public class ReadYourWritesTracker {
+
+    private ThreadLocal<RequestWrites> current = new ThreadLocal<>();
+
+    private long stickinessMillis;
+
+    public ReadYourWritesTracker(long stickinessMillis) {
+        this.stickinessMillis = stickinessMillis;
+    }
+
+    public long getStickinessMillis() {
+        return stickinessMillis;
+    }
+
+    /**
+     * Associa a requisição à thread atual com a última escrita já validada (ou null)
+     * e o callback chamado a cada nova escrita, que devolve o token ao cliente.
+     */
+    public void bind(Long lastWrite, LongConsumer onWrite) {
+        current.set(new RequestWrites(lastWrite, onWrite));
+    }
+
+    public void unbind() {
+        current.remove();
+    }
+
+    /**
+     * Captura a requisição da thread atual: as tarefas do executor devolvido rodam com
+     * ela associada, para que uma escrita concluída em outra thread (ex.: o lote do
+     * coalescer) ainda seja atribuída a quem a fez.
+     */
+    public Executor currentRequestExecutor() {
+        RequestWrites captured = current.get();
+        return task -> {
+            RequestWrites previous = current.get();
+            current.set(captured);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    /**
+     * Mesma captura de {@link #currentRequestExecutor()} para tarefas com retorno,
+     * como as faixas da busca paralela.
+     */
+    public <T> Callable<T> withCurrentRequest(Callable<T> task) {
+        RequestWrites captured = current.get();
+        return () -> {
+            RequestWrites previous = current.get();
+            current.set(captured);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private void restore(RequestWrites previous) {
+        if ( previous == null ) {
+            current.remove();
+        } else {
+            current.set(previous);
+        }
+    }
+
+    public boolean mustReadFromPrimary() {
+        RequestWrites request = current.get();
+        Long lastWrite = request == null ? null : request.lastWrite;
+        return lastWrite != null && System.currentTimeMillis() - lastWrite <= stickinessMillis;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookEvent(BookEvent event) {
+        RequestWrites request = current.get();
+        if ( request == null ) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        request.lastWrite = now;
+        request.onWrite.accept(now);
+    }
+
+    private static class RequestWrites {
+
+        private volatile Long lastWrite;
+
+        private LongConsumer onWrite;
+
+        RequestWrites(Long lastWrite, LongConsumer onWrite) {
+            this.lastWrite = lastWrite;
+            this.onWrite = onWrite;
+        }
+    }
+}
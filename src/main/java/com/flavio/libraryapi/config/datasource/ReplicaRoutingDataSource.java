@@ -0,0 +1,38 @@
+package com.flavio.libraryapi.config.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envia transações read-only para as réplicas em round-robin e todo o resto para
+ * o primário. Precisa ficar atrás de um LazyConnectionDataSourceProxy para que a
+ * conexão só seja obtida depois que a transação marcou se é read-only.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private List<String> replicas;
+
+    private ReadYourWritesTracker tracker;
+
+    private AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(List<String> replicas, ReadYourWritesTracker tracker) {
+        this.replicas = replicas;
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if ( replicas.isEmpty()
+                || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                || tracker.mustReadFromPrimary() ) {
+            return PRIMARY;
+        }
+        return replicas.get( Math.floorMod(next.getAndIncrement(), replicas.size()) );
+    }
+}
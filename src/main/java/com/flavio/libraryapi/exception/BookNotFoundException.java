@@ -0,0 +1,10 @@
+package com.flavio.libraryapi.exception;
+
+public class BookNotFoundException extends RuntimeException {
+
+	public static final BookNotFoundException INSTANCE = new BookNotFoundException();
+
+	private BookNotFoundException() {
+		super("Livro não encontrado.", null, false, false);
+	}
+}
@@ -2,7 +2,17 @@ package com.flavio.libraryapi.exception;
 
 public class BusinessException extends RuntimeException {
 
+	public static final BusinessException INVALID_ISBN = new BusinessException("Isbn inválido.");
+
+	public static final BusinessException DUPLICATED_ISBN = new BusinessException("Isbn já cadastrado.");
+
+	public static final BusinessException MISSING_DELETE_FILTER =
+			new BusinessException("Informe ao menos um filtro para a exclusão.");
+
+	public static final BusinessException PAGE_OUT_OF_WINDOW =
+			new BusinessException("Página fora da janela de busca permitida.");
+
 	public BusinessException(String s) {
-		super(s);
+		super(s, null, false, false);
 	}
 }
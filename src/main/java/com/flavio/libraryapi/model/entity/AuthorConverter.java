@@ -0,0 +1,30 @@
+package com.flavio.libraryapi.model.entity;
+
+import com.flavio.libraryapi.model.repository.AuthorDictionary;
+
+import javax.persistence.AttributeConverter;
+import javax.persistence.Converter;
+
+/**
+ * Grava o autor do livro como o id do dicionário de autores e devolve, na leitura,
+ * a instância de nome compartilhada pelo dicionário.
+ */
+@Converter
+public class AuthorConverter implements AttributeConverter<String, Integer> {
+
+    private AuthorDictionary dictionary;
+
+    public AuthorConverter(AuthorDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String author) {
+        return author == null ? null : dictionary.idOf(author);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer authorId) {
+        return authorId == null ? null : dictionary.nameOf(authorId);
+    }
+}
@@ -3,7 +3,9 @@ package com.flavio.libraryapi.model.entity;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import javax.persistence.*;
 
@@ -12,7 +14,10 @@ import javax.persistence.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table
+@Table(indexes = {
+        @Index(name = "idx_book_isbn_key", columnList = "isbn_key", unique = true),
+        @Index(name = "idx_book_author_id", columnList = "author_id")
+})
 public class Book {
 
     @Id
@@ -23,10 +28,29 @@ public class Book {
     @Column
     private String title;
 
-    @Column
+    @Convert(converter = AuthorConverter.class)
+    @Column(name = "author_id")
     private String author;
 
+    /**
+     * Mesma coluna author_id, só leitura: declara a chave estrangeira para author e
+     * permite ordenar pelo nome com um join. A escrita continua por {@link #author}.
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "author_id", insertable = false, updatable = false,
+            foreignKey = @ForeignKey(name = "fk_book_author"))
+    private Author authorRef;
+
+    /**
+     * ISBN como o cliente informou, devolvido na API e usado no filtro parcial da busca.
+     * Unicidade e busca exata usam {@link #isbnKey}.
+     */
     @Column
     private String isbn;
 
+    @Column(name = "isbn_key")
+    private Long isbnKey;
+
 }
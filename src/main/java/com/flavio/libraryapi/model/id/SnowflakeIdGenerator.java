@@ -0,0 +1,54 @@
+package com.flavio.libraryapi.model.id;
+
+/**
+ * Gera ids de 64 bits únicos e ordenados no tempo sem consultar o banco:
+ * 41 bits de milissegundos desde 2020-01-01, 10 bits de nó e 12 bits de sequência.
+ */
+public class SnowflakeIdGenerator {
+
+    private static final long EPOCH = 1577836800000L;
+
+    private static final int NODE_BITS = 10;
+
+    private static final int SEQUENCE_BITS = 12;
+
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private long node;
+
+    private long lastTimestamp = -1;
+
+    private long sequence;
+
+    public SnowflakeIdGenerator(long node) {
+        if ( node < 0 || node > MAX_NODE ) {
+            throw new IllegalArgumentException("Node id deve estar entre 0 e " + MAX_NODE + ".");
+        }
+        this.node = node;
+    }
+
+    public synchronized long nextId() {
+        long timestamp = Math.max(System.currentTimeMillis(), lastTimestamp);
+        if ( timestamp == lastTimestamp ) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if ( sequence == 0 ) {
+                timestamp = waitNextMillis(timestamp);
+            }
+        } else {
+            sequence = 0;
+        }
+        lastTimestamp = timestamp;
+        return ((timestamp - EPOCH) << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
+    }
+
+    private long waitNextMillis(long timestamp) {
+        long next = System.currentTimeMillis();
+        while ( next <= timestamp ) {
+            Thread.yield();
+            next = System.currentTimeMillis();
+        }
+        return next;
+    }
+}
@@ -0,0 +1,110 @@
+package com.flavio.libraryapi.model.repository;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dicionário id <-> nome da tabela author. Cada nome fica uma única vez em memória
+ * e é compartilhado por todos os livros carregados.
+ *
+ * Autores novos são gravados numa transação própria (REQUIRES_NEW): o insert já
+ * está confirmado quando o id entra no dicionário, e uma colisão de nome com outra
+ * instância desfaz só essa transação curta, nunca a de quem chamou, inclusive em
+ * bancos que abortam a transação depois de um erro. Se a transação de quem chamou
+ * for desfeita, o autor fica na tabela sem livros, o que é inofensivo.
+ *
+ * O gerenciador de transações é resolvido só no primeiro autor novo: ele depende do
+ * EntityManagerFactory, que por sua vez cria o {@code AuthorConverter} que usa este
+ * dicionário.
+ */
+@Component
+public class AuthorDictionary {
+
+    private static final String INSERT_SQL = "insert into author (name) values (?)";
+
+    private static final String SELECT_ID_SQL = "select id from author where name = ?";
+
+    private JdbcTemplate jdbcTemplate;
+
+    private ObjectProvider<PlatformTransactionManager> transactionManager;
+
+    private volatile TransactionTemplate requiresNew;
+
+    private Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+    private Map<Integer, String> names = new ConcurrentHashMap<>();
+
+    public AuthorDictionary(DataSource dataSource, ObjectProvider<PlatformTransactionManager> transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionManager = transactionManager;
+    }
+
+    public Integer idOf(String name) {
+        Integer id = ids.get(name);
+        return id != null ? id : register(name);
+    }
+
+    public String nameOf(Integer id) {
+        String name = names.get(id);
+        if ( name != null ) {
+            return name;
+        }
+        List<String> found = jdbcTemplate.queryForList("select name from author where id = ?", String.class, id);
+        return found.isEmpty() ? null : cache(id, found.get(0));
+    }
+
+    private Integer register(String name) {
+        List<Integer> found = jdbcTemplate.queryForList(SELECT_ID_SQL, Integer.class, name);
+        if ( !found.isEmpty() ) {
+            cache(found.get(0), name);
+            return found.get(0);
+        }
+        TransactionTemplate requiresNew = requiresNew();
+        Integer id;
+        try {
+            id = requiresNew.execute( status -> insert(name) );
+        } catch (DuplicateKeyException ex) {
+            id = requiresNew.execute( status -> jdbcTemplate.queryForObject(SELECT_ID_SQL, Integer.class, name) );
+        }
+        cache(id, name);
+        return id;
+    }
+
+    private TransactionTemplate requiresNew() {
+        if ( requiresNew == null ) {
+            TransactionTemplate template = new TransactionTemplate(transactionManager.getObject());
+            template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            requiresNew = template;
+        }
+        return requiresNew;
+    }
+
+    private Integer insert(String name) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update( connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_SQL, new String[] { "id" });
+            statement.setString(1, name);
+            return statement;
+        }, keyHolder );
+        return keyHolder.getKey().intValue();
+    }
+
+    private String cache(Integer id, String name) {
+        String shared = names.computeIfAbsent(id, key -> name);
+        ids.putIfAbsent(shared, id);
+        return shared;
+    }
+}
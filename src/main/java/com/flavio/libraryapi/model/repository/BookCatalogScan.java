@@ -0,0 +1,16 @@
+package com.flavio.libraryapi.model.repository;
+
+import com.flavio.libraryapi.model.entity.Book;
+
+import java.util.function.Consumer;
+
+/**
+ * Percorre todos os livros do catálogo com id, título e autor, para os índices
+ * em memória que são reconstruídos a partir do armazenamento.
+ */
+@FunctionalInterface
+public interface BookCatalogScan {
+
+    void forEach(Consumer<Book> consumer);
+
+}
@@ -0,0 +1,15 @@
+package com.flavio.libraryapi.model.repository;
+
+import com.flavio.libraryapi.model.entity.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+public interface BookProjectionRepository {
+
+    Page<Map<String, Object>> findProjected(Specification<Book> specification, Pageable pageRequest, List<String> fields);
+
+}
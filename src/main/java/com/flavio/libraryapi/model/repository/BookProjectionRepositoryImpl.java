@@ -0,0 +1,75 @@
+package com.flavio.libraryapi.model.repository;
+
+import com.flavio.libraryapi.model.entity.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.repository.support.PageableExecutionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class BookProjectionRepositoryImpl implements BookProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Map<String, Object>> findProjected(Specification<Book> specification, Pageable pageRequest, List<String> fields) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<Book> root = query.from(Book.class);
+        List<Selection<?>> selections = fields.stream()
+                .<Selection<?>>map( field -> root.get(field).alias(field) )
+                .collect(Collectors.toList());
+        query.multiselect(selections);
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if ( predicate != null ) {
+            query.where(predicate);
+        }
+        query.orderBy( QueryUtils.toOrders(BookSpecifications.sortingAuthorByName(pageRequest.getSort()), root, builder) );
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if ( pageRequest.isPaged() ) {
+            typedQuery.setFirstResult( (int) pageRequest.getOffset() );
+            typedQuery.setMaxResults( pageRequest.getPageSize() );
+        }
+
+        List<Map<String, Object>> content = typedQuery.getResultList().stream()
+                .map( tuple -> toMap(tuple, fields) )
+                .collect(Collectors.toList());
+
+        return PageableExecutionUtils.getPage(content, pageRequest, () -> count(specification));
+    }
+
+    private long count(Specification<Book> specification) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<Book> root = query.from(Book.class);
+        query.select( builder.count(root) );
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if ( predicate != null ) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Map<String, Object> toMap(Tuple tuple, List<String> fields) {
+        Map<String, Object> row = new LinkedHashMap<>(fields.size() * 2);
+        fields.forEach( field -> row.put(field, tuple.get(field)) );
+        return row;
+    }
+}
@@ -1,10 +1,42 @@
 package com.flavio.libraryapi.model.repository;
 
 import com.flavio.libraryapi.model.entity.Book;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
-public interface BookRepository extends JpaRepository<Book, Long> {
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
-    boolean existsByIsbn(String isbn);
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book>,
+        BookProjectionRepository {
+
+    boolean existsByIsbnKey(Long isbnKey);
+
+    Optional<Book> findByIsbnKey(Long isbnKey);
+
+    @Query("select min(b.id) from Book b")
+    Long findMinId();
+
+    @Query("select max(b.id) from Book b")
+    Long findMaxId();
+
+    @Query("select b.id, b.title, b.author from Book b where b.id > :after order by b.id")
+    List<Object[]> findTermsAfter(@Param("after") Long after, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Book b where b.id = :id")
+    int deleteBookById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("delete from Book b where b.id in :ids")
+    int deleteBooksByIds(@Param("ids") Collection<Long> ids);
 
 }
@@ -0,0 +1,86 @@
+package com.flavio.libraryapi.model.repository;
+
+import com.flavio.libraryapi.model.entity.Book;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.convert.QueryByExamplePredicateBuilder;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.Expression;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+public final class BookSpecifications {
+
+    private static final String AUTHOR_NAME = "authorRef.name";
+
+    private BookSpecifications() {
+    }
+
+    /**
+     * Filtro por Example. O autor é gravado como id do dicionário, então ele sai do
+     * Example e vira um LIKE sobre author.name no join de authorRef, com o matcher e
+     * a caixa do próprio Example.
+     */
+    public static Specification<Book> byExample(Example<Book> example) {
+        Book probe = example.getProbe();
+        if ( probe.getAuthor() == null ) {
+            return (root, query, builder) -> QueryByExamplePredicateBuilder.getPredicate(root, builder, example);
+        }
+        ExampleMatcher matcher = example.getMatcher();
+        Book withoutAuthor = Book.builder()
+                .id(probe.getId())
+                .title(probe.getTitle())
+                .isbn(probe.getIsbn())
+                .isbnKey(probe.getIsbnKey())
+                .build();
+        return byExample( Example.of(withoutAuthor, matcher.withIgnorePaths("author")) )
+                .and( authorNameMatching(probe.getAuthor(), matcher.getDefaultStringMatcher(), matcher.isIgnoreCaseEnabled()) );
+    }
+
+    public static Specification<Book> authorNameMatching(String value, ExampleMatcher.StringMatcher matcher,
+                                                         boolean ignoreCase) {
+        String pattern = likePattern(value, matcher);
+        return (root, query, builder) -> {
+            Expression<String> name = root.join("authorRef").<String>get("name");
+            return ignoreCase
+                    ? builder.like(builder.lower(name), pattern.toLowerCase(Locale.ROOT), '\\')
+                    : builder.like(name, pattern, '\\');
+        };
+    }
+
+    private static String likePattern(String value, ExampleMatcher.StringMatcher matcher) {
+        String escaped = value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        switch (matcher) {
+            case STARTING:
+                return escaped + "%";
+            case ENDING:
+                return "%" + escaped;
+            case CONTAINING:
+                return "%" + escaped + "%";
+            default:
+                return escaped;
+        }
+    }
+
+    /**
+     * A coluna de autor guarda o id do dicionário; ordenar por "author" passa a ser
+     * ordenar pelo nome, com join em author.
+     */
+    public static Pageable sortingAuthorByName(Pageable pageRequest) {
+        if ( !pageRequest.isPaged() || pageRequest.getSort().getOrderFor("author") == null ) {
+            return pageRequest;
+        }
+        return PageRequest.of( pageRequest.getPageNumber(), pageRequest.getPageSize(),
+                sortingAuthorByName(pageRequest.getSort()) );
+    }
+
+    public static Sort sortingAuthorByName(Sort sort) {
+        return Sort.by( sort.stream()
+                .map( order -> "author".equals(order.getProperty()) ? order.withProperty(AUTHOR_NAME) : order )
+                .collect(Collectors.toList()) );
+    }
+}
@@ -0,0 +1,44 @@
+package com.flavio.libraryapi.model.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Índice persistido de ISBN para livro do modo particionado. Fica no banco principal,
+ * compartilhado por todos os nós, e a chave primária em isbn_key é o que garante a
+ * unicidade do ISBN entre shards.
+ */
+public class IsbnRouteRepository {
+
+    private JdbcTemplate jdbc;
+
+    public IsbnRouteRepository(DataSource dataSource) {
+        this.jdbc = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Reserva o ISBN para o livro. Retorna false se outro livro já o possui.
+     */
+    public boolean claim(long isbnKey, long bookId) {
+        try {
+            jdbc.update("insert into book_isbn_route (isbn_key, book_id) values (?, ?)", isbnKey, bookId);
+            return true;
+        } catch (DuplicateKeyException ex) {
+            return false;
+        }
+    }
+
+    public Optional<Long> findBookId(long isbnKey) {
+        List<Long> found = jdbc.queryForList(
+                "select book_id from book_isbn_route where isbn_key = ?", Long.class, isbnKey);
+        return found.stream().findFirst();
+    }
+
+    public void release(long bookId) {
+        jdbc.update("delete from book_isbn_route where book_id = ?", bookId);
+    }
+}
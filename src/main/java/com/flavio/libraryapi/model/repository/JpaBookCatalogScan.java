@@ -0,0 +1,40 @@
+package com.flavio.libraryapi.model.repository;
+
+import com.flavio.libraryapi.model.entity.Book;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Varredura da tabela book por keyset no id, em páginas de tamanho fixo.
+ */
+@Component
+public class JpaBookCatalogScan implements BookCatalogScan {
+
+    private static final int PAGE_SIZE = 1000;
+
+    private BookRepository repository;
+
+    public JpaBookCatalogScan(BookRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public void forEach(Consumer<Book> consumer) {
+        List<Object[]> rows = repository.findTermsAfter( 0l, PageRequest.of(0, PAGE_SIZE) );
+        while ( !rows.isEmpty() ) {
+            rows.forEach( row -> consumer.accept( Book.builder()
+                    .id((Long) row[0])
+                    .title((String) row[1])
+                    .author((String) row[2])
+                    .build() ) );
+            if ( rows.size() < PAGE_SIZE ) {
+                break;
+            }
+            Long last = (Long) rows.get(rows.size() - 1)[0];
+            rows = repository.findTermsAfter( last, PageRequest.of(0, PAGE_SIZE) );
+        }
+    }
+}
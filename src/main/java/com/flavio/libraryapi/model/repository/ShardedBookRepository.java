@@ -0,0 +1,152 @@
+package com.flavio.libraryapi.model.repository;
+
+import com.flavio.libraryapi.exception.BusinessException;
+import com.flavio.libraryapi.model.entity.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Acesso JDBC à tabela book particionada em vários bancos. O shard de um livro é
+ * derivado do hash do seu id.
+ *
+ * Cada shard guarda a chave numérica do ISBN com índice único; a unicidade entre
+ * shards é do índice de rotas no banco principal. O autor fica como nome: o
+ * dicionário de autores e sua chave estrangeira vivem no banco principal e não
+ * atravessam bancos.
+ */
+public class ShardedBookRepository {
+
+    private static final int SCAN_PAGE = 1000;
+
+    private static final Set<String> COLUMNS = new HashSet<>(Arrays.asList("id", "title", "author", "isbn"));
+
+    private static final RowMapper<Book> BOOK_MAPPER = (rs, row) -> Book.builder()
+            .id(rs.getLong("id"))
+            .title(rs.getString("title"))
+            .author(rs.getString("author"))
+            .isbn(rs.getString("isbn"))
+            .isbnKey((Long) rs.getObject("isbn_key"))
+            .build();
+
+    private List<JdbcTemplate> shards;
+
+    public ShardedBookRepository(List<DataSource> dataSources) {
+        this.shards = dataSources.stream().map(JdbcTemplate::new).collect(Collectors.toList());
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public int shardOf(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) Math.floorMod(hash ^ (hash >>> 32), (long) shards.size());
+    }
+
+    public void insert(Book book) {
+        shards.get(shardOf(book.getId())).update(
+                "insert into book (id, title, author, isbn, isbn_key) values (?, ?, ?, ?, ?)",
+                book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn(), book.getIsbnKey());
+    }
+
+    public Optional<Book> findById(long id) {
+        List<Book> found = shards.get(shardOf(id)).query(
+                "select id, title, author, isbn, isbn_key from book where id = ?", BOOK_MAPPER, id);
+        return found.stream().findFirst();
+    }
+
+    public int update(Book book) {
+        return shards.get(shardOf(book.getId())).update(
+                "update book set title = ?, author = ?, isbn = ? where id = ?",
+                book.getTitle(), book.getAuthor(), book.getIsbn(), book.getId());
+    }
+
+    public int delete(long id) {
+        return shards.get(shardOf(id)).update("delete from book where id = ?", id);
+    }
+
+    /**
+     * Percorre os livros de todos os shards, um shard por vez, por keyset no id.
+     */
+    public void forEachBook(Consumer<Book> consumer) {
+        for ( JdbcTemplate shard : shards ) {
+            List<Book> page = shard.query(
+                    "select id, title, author, isbn, isbn_key from book order by id limit " + SCAN_PAGE, BOOK_MAPPER);
+            while ( !page.isEmpty() ) {
+                page.forEach(consumer);
+                if ( page.size() < SCAN_PAGE ) {
+                    break;
+                }
+                long last = page.get(page.size() - 1).getId();
+                page = shard.query(
+                        "select id, title, author, isbn, isbn_key from book where id > ? order by id limit " + SCAN_PAGE,
+                        BOOK_MAPPER, last);
+            }
+        }
+    }
+
+    /**
+     * Mesma semântica do find por Example: filtros não nulos, sem distinção de caixa,
+     * por conteúdo. Retorna no máximo {@code limit} linhas ordenadas e o total do shard.
+     */
+    public Page<Book> find(int shard, Book filter, Sort sort, int limit) {
+        List<Object> args = new ArrayList<>();
+        StringJoiner where = new StringJoiner(" and ", " where ", "").setEmptyValue("");
+        if ( filter.getId() != null ) {
+            where.add("id = ?");
+            args.add(filter.getId());
+        }
+        addContaining(where, args, "title", filter.getTitle());
+        addContaining(where, args, "author", filter.getAuthor());
+        addContaining(where, args, "isbn", filter.getIsbn());
+
+        JdbcTemplate jdbc = shards.get(shard);
+        List<Book> content = jdbc.query(
+                "select id, title, author, isbn, isbn_key from book" + where + orderBy(sort) + " limit " + limit,
+                BOOK_MAPPER, args.toArray());
+        long total = content.size() < limit
+                ? content.size()
+                : jdbc.queryForObject("select count(*) from book" + where, Long.class, args.toArray());
+        return new PageImpl<>(content, Pageable.unpaged(), total);
+    }
+
+    private static void addContaining(StringJoiner where, List<Object> args, String column, String value) {
+        if ( value == null ) {
+            return;
+        }
+        where.add("lower(" + column + ") like ? escape '\\'");
+        String escaped = value.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        args.add("%" + escaped + "%");
+    }
+
+    private static String orderBy(Sort sort) {
+        StringJoiner orderBy = new StringJoiner(", ", " order by ", "").setEmptyValue("");
+        for ( Sort.Order order : sort ) {
+            if ( !COLUMNS.contains(order.getProperty()) ) {
+                throw new BusinessException("Propriedade de ordenação inválida: " + order.getProperty());
+            }
+            String column = order.isIgnoreCase() ? "lower(" + order.getProperty() + ")" : order.getProperty();
+            orderBy.add(column + (order.isAscending() ? " asc" : " desc"));
+        }
+        return orderBy.toString();
+    }
+}
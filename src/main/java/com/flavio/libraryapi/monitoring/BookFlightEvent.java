@@ -0,0 +1,33 @@
+package com.flavio.libraryapi.monitoring;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Campos comuns dos eventos de Flight Recorder emitidos nos caminhos de livros.
+ */
+@Category({ "Library API", "Books" })
+@StackTrace(false)
+public abstract class BookFlightEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Book Id")
+    @Description("Id do livro envolvido, ou -1 quando não se aplica")
+    long bookId = -1;
+
+    @Label("Filter")
+    @Description("Campos preenchidos no filtro da busca")
+    String filter;
+
+    @Label("Rows")
+    @Description("Quantidade de livros retornados ou afetados")
+    long rows;
+
+    @Label("Failed")
+    boolean failed;
+}
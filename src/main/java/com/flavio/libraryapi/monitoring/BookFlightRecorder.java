@@ -0,0 +1,125 @@
+package com.flavio.libraryapi.monitoring;
+
+import com.flavio.libraryapi.api.dto.BookDTO;
+import com.flavio.libraryapi.model.entity.Book;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+/**
+ * Emite eventos de Flight Recorder no controller, no BookService, no repositório
+ * e no mapeamento. Quando o evento está desabilitado na gravação o custo é só o
+ * da chamada ao proxy.
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "library.jfr", name = "enabled", havingValue = "true")
+public class BookFlightRecorder {
+
+    @Around("execution(public * com.flavio.libraryapi.api.resource.BookController.*(..))")
+    public Object controller(ProceedingJoinPoint call) throws Throwable {
+        return record(new ControllerRequestEvent(), call);
+    }
+
+    @Around("execution(* com.flavio.libraryapi.service.BookService+.*(..))")
+    public Object service(ProceedingJoinPoint call) throws Throwable {
+        return record(new ServiceCallEvent(), call);
+    }
+
+    @Around("execution(* com.flavio.libraryapi.model.repository.BookRepository+.*(..))")
+    public Object repository(ProceedingJoinPoint call) throws Throwable {
+        return record(new RepositoryQueryEvent(), call);
+    }
+
+    @Around("execution(* org.modelmapper.ModelMapper.map(Object, Class))")
+    public Object mapping(ProceedingJoinPoint call) throws Throwable {
+        return record(new MappingEvent(), call);
+    }
+
+    private Object record(BookFlightEvent event, ProceedingJoinPoint call) throws Throwable {
+        if ( !event.isEnabled() ) {
+            return call.proceed();
+        }
+        event.begin();
+        try {
+            Object result = call.proceed();
+            event.rows = rows(result);
+            return result;
+        } catch (Throwable ex) {
+            event.failed = true;
+            throw ex;
+        } finally {
+            event.end();
+            if ( event.shouldCommit() ) {
+                event.operation = call.getSignature().getName();
+                describe(event, call.getArgs());
+                event.commit();
+            }
+        }
+    }
+
+    private static void describe(BookFlightEvent event, Object[] args) {
+        for ( Object arg : args ) {
+            if ( arg instanceof Long ) {
+                event.bookId = (Long) arg;
+            } else if ( arg instanceof Book ) {
+                describe(event, (Book) arg);
+            } else if ( arg instanceof Example && ((Example<?>) arg).getProbe() instanceof Book ) {
+                describe(event, (Book) ((Example<?>) arg).getProbe());
+            } else if ( arg instanceof BookDTO ) {
+                BookDTO dto = (BookDTO) arg;
+                describe(event, Book.builder().id(dto.getId()).title(dto.getTitle())
+                        .author(dto.getAuthor()).isbn(dto.getIsbn()).build());
+            } else if ( arg instanceof Class ) {
+                event.filter = ((Class<?>) arg).getSimpleName();
+            }
+        }
+    }
+
+    private static void describe(BookFlightEvent event, Book book) {
+        if ( book.getId() != null ) {
+            event.bookId = book.getId();
+        }
+        StringJoiner fields = new StringJoiner(",");
+        if ( book.getTitle() != null ) {
+            fields.add("title");
+        }
+        if ( book.getAuthor() != null ) {
+            fields.add("author");
+        }
+        if ( book.getIsbn() != null ) {
+            fields.add("isbn");
+        }
+        event.filter = fields.toString();
+    }
+
+    private static long rows(Object result) {
+        if ( result == null ) {
+            return 0;
+        }
+        if ( result instanceof Page ) {
+            return ((Page<?>) result).getNumberOfElements();
+        }
+        if ( result instanceof Collection ) {
+            return ((Collection<?>) result).size();
+        }
+        if ( result instanceof Optional ) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        if ( result instanceof Number ) {
+            return ((Number) result).longValue();
+        }
+        if ( result instanceof Boolean ) {
+            return (Boolean) result ? 1 : 0;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,9 @@
+package com.flavio.libraryapi.monitoring;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.flavio.libraryapi.ControllerRequest")
+@Label("Controller Request")
+public class ControllerRequestEvent extends BookFlightEvent {
+}
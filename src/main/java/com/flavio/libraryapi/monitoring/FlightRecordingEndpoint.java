@@ -0,0 +1,69 @@
+package com.flavio.libraryapi.monitoring;
+
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Endpoint do actuator que entrega a janela atual da gravação contínua como um
+ * arquivo .jfr. O perfil jfr liga a gravação e expõe o endpoint na porta de
+ * gerenciamento (management.server.* em application-jfr.properties), fora da porta
+ * pública da API; sem ele a configuração do actuator fica a padrão do Boot.
+ */
+@Component
+@WebEndpoint(id = "flightrecording")
+@ConditionalOnProperty(prefix = "library.jfr", name = "enabled", havingValue = "true")
+public class FlightRecordingEndpoint {
+
+    private FlightRecordingService recordingService;
+
+    public FlightRecordingEndpoint(FlightRecordingService recordingService) {
+        this.recordingService = recordingService;
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public Resource dump() throws IOException {
+        return new TemporaryFileResource( recordingService.dump() );
+    }
+
+    /**
+     * Apaga o arquivo temporário do dump assim que a resposta termina de ser lida.
+     */
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        private Path file;
+
+        TemporaryFileResource(Path file) {
+            super(file);
+            this.file = file;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public boolean isFile() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.flavio.libraryapi.monitoring;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Gravação contínua com as configurações "default" do JFR mais os eventos de
+ * livros, mantendo em disco apenas a janela de library.jfr.max-age-minutes.
+ *
+ * A API jdk.jfr só existe a partir do JDK 11 e, no Java 8, do 8u262; em JVMs mais
+ * antigas library.jfr.enabled deve ficar desligado.
+ */
+@Component
+@ConditionalOnProperty(prefix = "library.jfr", name = "enabled", havingValue = "true")
+public class FlightRecordingService {
+
+    private static final List<Class<? extends Event>> BOOK_EVENTS = Arrays.asList(
+            ControllerRequestEvent.class, ServiceCallEvent.class, RepositoryQueryEvent.class, MappingEvent.class);
+
+    private Recording recording;
+
+    public FlightRecordingService(@Value("${library.jfr.max-age-minutes:10}") long maxAgeMinutes,
+                                  @Value("${library.jfr.max-size-mb:100}") long maxSizeMegabytes,
+                                  @Value("${library.jfr.threshold-ms:1}") long thresholdMillis)
+            throws IOException, ParseException {
+        this.recording = new Recording(Configuration.getConfiguration("default"));
+        this.recording.setName("library-api-continuous");
+        this.recording.setToDisk(true);
+        this.recording.setMaxAge(Duration.ofMinutes(maxAgeMinutes));
+        this.recording.setMaxSize(maxSizeMegabytes * 1024 * 1024);
+        BOOK_EVENTS.forEach( type -> recording.enable(type).withThreshold(Duration.ofMillis(thresholdMillis)) );
+    }
+
+    @PostConstruct
+    public void start() {
+        recording.start();
+    }
+
+    public Path dump() throws IOException {
+        Path file = Files.createTempFile("library-api-", ".jfr");
+        recording.dump(file);
+        return file;
+    }
+
+    @PreDestroy
+    public void stop() {
+        recording.close();
+    }
+}
@@ -0,0 +1,9 @@
+package com.flavio.libraryapi.monitoring;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.flavio.libraryapi.Mapping")
+@Label("Mapping")
+public class MappingEvent extends BookFlightEvent {
+}
@@ -0,0 +1,9 @@
+package com.flavio.libraryapi.monitoring;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.flavio.libraryapi.ServiceCall")
+@Label("Service Call")
+public class ServiceCallEvent extends BookFlightEvent {
+}
@@ -4,7 +4,12 @@ import com.flavio.libraryapi.model.entity.Book;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public interface BookService {
 
@@ -12,9 +17,23 @@ public interface BookService {
 
     Optional<Book> getById(Long id);
 
+    Optional<Book> getByIsbn(String isbn);
+
     void delete(Book book);
 
+    boolean deleteById(Long id);
+
+    long deleteByIds(Collection<Long> ids);
+
+    long deleteByFilter(Book filter);
+
     Book update(Book book);
 
+    CompletableFuture<Book> updateAsync(Book book);
+
     Page<Book> find(Book filter, Pageable pageRequest);
+
+    Page<Map<String, Object>> find(Book filter, Pageable pageRequest, Set<String> fields);
+
+    List<String> suggest(String prefix, int limit);
 }
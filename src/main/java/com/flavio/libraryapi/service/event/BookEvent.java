@@ -0,0 +1,40 @@
+package com.flavio.libraryapi.service.event;
+
+import com.flavio.libraryapi.model.entity.Book;
+import lombok.Getter;
+
+@Getter
+public class BookEvent {
+
+    public enum Type { SAVED, UPDATED, DELETED }
+
+    private Type type;
+
+    private Long id;
+
+    private String title;
+
+    private String author;
+
+    private String isbn;
+
+    private BookEvent(Type type, Book book) {
+        this.type = type;
+        this.id = book.getId();
+        this.title = book.getTitle();
+        this.author = book.getAuthor();
+        this.isbn = book.getIsbn();
+    }
+
+    public static BookEvent saved(Book book) {
+        return new BookEvent(Type.SAVED, book);
+    }
+
+    public static BookEvent updated(Book book) {
+        return new BookEvent(Type.UPDATED, book);
+    }
+
+    public static BookEvent deleted(Book book) {
+        return new BookEvent(Type.DELETED, book);
+    }
+}
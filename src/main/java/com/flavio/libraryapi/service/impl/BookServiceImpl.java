@@ -1,45 +1,189 @@
 package com.flavio.libraryapi.service.impl;
 
+import com.flavio.libraryapi.config.datasource.ReadYourWritesTracker;
 import com.flavio.libraryapi.exception.BusinessException;
 import com.flavio.libraryapi.model.entity.Book;
 import com.flavio.libraryapi.model.repository.BookRepository;
+import com.flavio.libraryapi.model.repository.BookSpecifications;
 import com.flavio.libraryapi.service.BookService;
+import com.flavio.libraryapi.service.event.BookEvent;
+import com.flavio.libraryapi.service.isbn.Isbn;
+import com.flavio.libraryapi.service.isbn.IsbnCache;
+import com.flavio.libraryapi.service.suggest.BookSuggestIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Example;
 import org.springframework.data.domain.ExampleMatcher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class BookServiceImpl implements BookService {
 
+    private static final int DELETE_CHUNK = 1000;
+
+    private static final List<String> PROJECTABLE_FIELDS = Arrays.asList("id", "title", "author", "isbn");
+
     private BookRepository repository;
 
+    private ParallelBookSearch parallelSearch;
+
+    private BookSuggestIndex suggestIndex;
+
+    private MissingBookCache missingBooks;
+
+    private BookUpdateCoalescer updateCoalescer;
+
+    private IsbnCache isbnCache;
+
+    private ReadYourWritesTracker readYourWrites;
+
+    private ApplicationEventPublisher eventPublisher;
+
     public BookServiceImpl(BookRepository repository) {
+        this(repository, null, null, null, null, null, null, null);
+    }
+
+    @Autowired
+    public BookServiceImpl(BookRepository repository, ParallelBookSearch parallelSearch,
+                           BookSuggestIndex suggestIndex, MissingBookCache missingBooks,
+                           BookUpdateCoalescer updateCoalescer, IsbnCache isbnCache,
+                           @Nullable ReadYourWritesTracker readYourWrites,
+                           ApplicationEventPublisher eventPublisher) {
         this.repository = repository;
+        this.parallelSearch = parallelSearch;
+        this.suggestIndex = suggestIndex;
+        this.missingBooks = missingBooks;
+        this.updateCoalescer = updateCoalescer;
+        this.isbnCache = isbnCache;
+        this.readYourWrites = readYourWrites;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional
     public Book save(Book book) {
-        if ( this.repository.existsByIsbn(book.getIsbn()) ) {
-            throw new BusinessException("Isbn já cadastrado.");
+        long isbnKey = Isbn.toKey(book.getIsbn());
+        if ( this.repository.existsByIsbnKey(isbnKey) ) {
+            throw BusinessException.DUPLICATED_ISBN;
         }
-        return this.repository.save(book);
+        book.setIsbnKey(isbnKey);
+        Book saved;
+        try {
+            saved = this.repository.save(book);
+        } catch (DataIntegrityViolationException e) {
+            // outro cadastro do mesmo isbn passou pela checagem ao mesmo tempo; o índice único decide
+            throw BusinessException.DUPLICATED_ISBN;
+        }
+        publish( BookEvent::saved, saved );
+        return saved;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Book> getById(Long id) {
-        return this.repository.findById(id);
+        if ( missingBooks == null ) {
+            return this.repository.findById(id);
+        }
+        if ( missingBooks.isMissing(id) ) {
+            return Optional.empty();
+        }
+        long generation = missingBooks.generation(id);
+        Optional<Book> book = this.repository.findById(id);
+        if ( !book.isPresent() ) {
+            missingBooks.markMissing(id, generation);
+        }
+        return book;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Book> getByIsbn(String isbn) {
+        long isbnKey = Isbn.toKey(isbn);
+        if ( isbnCache == null || !isbnCache.isEnabled() ) {
+            return this.repository.findByIsbnKey(isbnKey);
+        }
+        Book cached = isbnCache.get(isbnKey);
+        if ( cached != null ) {
+            return Optional.of(cached);
+        }
+        Optional<Book> book = this.repository.findByIsbnKey(isbnKey);
+        book.ifPresent(isbnCache::put);
+        return book;
     }
 
     @Override
+    @Transactional
     public void delete(Book book) {
         if ( book == null || book.getId() == null ) {
             throw new IllegalArgumentException("Book id cant be null.");
         }
         this.repository.delete(book);
+        publish( BookEvent::deleted, book );
+    }
+
+    @Override
+    @Transactional
+    public boolean deleteById(Long id) {
+        if ( id == null ) {
+            throw new IllegalArgumentException("Book id cant be null.");
+        }
+        boolean deleted = this.repository.deleteBookById(id) > 0;
+        if ( deleted ) {
+            publish( BookEvent::deleted, Book.builder().id(id).build() );
+        }
+        return deleted;
+    }
+
+    @Override
+    public long deleteByIds(Collection<Long> ids) {
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        long deleted = 0;
+        for ( int from = 0; from < distinct.size(); from += DELETE_CHUNK ) {
+            List<Long> chunk = distinct.subList(from, Math.min(distinct.size(), from + DELETE_CHUNK));
+            deleted += this.repository.deleteBooksByIds(chunk);
+            chunk.forEach( id -> publish( BookEvent::deleted, Book.builder().id(id).build() ) );
+        }
+        return deleted;
+    }
+
+    @Override
+    public long deleteByFilter(Book filter) {
+        if ( filter.getId() == null && filter.getTitle() == null
+                && filter.getAuthor() == null && filter.getIsbn() == null ) {
+            throw BusinessException.MISSING_DELETE_FILTER;
+        }
+        Specification<Book> specification = toSpecification(filter);
+        long deleted = 0;
+        long removed;
+        List<Long> ids;
+        do {
+            ids = this.repository.findAll(specification, PageRequest.of(0, DELETE_CHUNK)).map(Book::getId).getContent();
+            removed = ids.isEmpty() ? 0 : deleteByIds(ids);
+            deleted += removed;
+        } while ( ids.size() == DELETE_CHUNK && removed > 0 );
+        return deleted;
     }
 
     @Override
@@ -47,18 +191,105 @@ public class BookServiceImpl implements BookService {
         if ( book == null || book.getId() == null ) {
             throw new IllegalArgumentException("Book id cant be null.");
         }
-        return this.repository.save(book);
+        if ( isCoalescing() ) {
+            return join( updateAsync(book) );
+        }
+        Book updated = this.repository.save(book);
+        publish( BookEvent::updated, updated );
+        return updated;
+    }
+
+    /**
+     * Com o coalescer ligado o evento de atualização só é publicado depois do commit
+     * do lote, na thread do coalescer, mas atribuído ao cliente que fez a chamada.
+     */
+    @Override
+    public CompletableFuture<Book> updateAsync(Book book) {
+        if ( !isCoalescing() ) {
+            return CompletableFuture.completedFuture( update(book) );
+        }
+        if ( book == null || book.getId() == null ) {
+            throw new IllegalArgumentException("Book id cant be null.");
+        }
+        Executor asCaller = readYourWrites == null ? Runnable::run : readYourWrites.currentRequestExecutor();
+        CompletableFuture<Book> committed = updateCoalescer.submit(book).thenApply( updated -> {
+            asCaller.execute( () -> publish( BookEvent::updated, updated ) );
+            return updated;
+        });
+        if ( updateCoalescer.getAcknowledgement() == BookUpdateCoalescer.Acknowledgement.QUEUED ) {
+            return CompletableFuture.completedFuture(book);
+        }
+        return committed;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<Book> find( Book filter, Pageable pageRequest ) {
-        Example<Book> example = Example.of(filter,
+        Specification<Book> specification = toSpecification(filter);
+        if ( parallelSearch != null && parallelSearch.supports(pageRequest) ) {
+            return parallelSearch.find(specification, pageRequest);
+        }
+        return repository.findAll(specification, BookSpecifications.sortingAuthorByName(pageRequest));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> find( Book filter, Pageable pageRequest, Set<String> fields ) {
+        return repository.findProjected( toSpecification(filter), pageRequest, projectableFields(fields) );
+    }
+
+    static List<String> projectableFields(Set<String> fields) {
+        if ( fields == null || fields.isEmpty() ) {
+            return PROJECTABLE_FIELDS;
+        }
+        for ( String field : fields ) {
+            if ( !PROJECTABLE_FIELDS.contains(field) ) {
+                throw new BusinessException("Campo inválido: " + field);
+            }
+        }
+        return new ArrayList<>(fields);
+    }
+
+    @Override
+    public List<String> suggest(String prefix, int limit) {
+        if ( suggestIndex == null ) {
+            return Collections.emptyList();
+        }
+        return suggestIndex.suggest(prefix, limit);
+    }
+
+    private Specification<Book> toSpecification(Book filter) {
+        return BookSpecifications.byExample( toExample(filter) );
+    }
+
+    private static Example<Book> toExample(Book filter) {
+        return Example.of(filter,
                 ExampleMatcher
                         .matching()
                         .withIgnoreCase()
                         .withIgnoreNullValues()
                         .withStringMatcher( ExampleMatcher.StringMatcher.CONTAINING )
         ) ;
-        return repository.findAll(example, pageRequest);
+    }
+
+    private boolean isCoalescing() {
+        return updateCoalescer != null && updateCoalescer.isEnabled();
+    }
+
+    private static Book join(CompletableFuture<Book> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if ( ex.getCause() instanceof RuntimeException ) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    private void publish(Function<Book, BookEvent> event, Book book) {
+        if ( eventPublisher != null && book != null ) {
+            eventPublisher.publishEvent( event.apply(book) );
+        }
     }
 }
@@ -0,0 +1,214 @@
+package com.flavio.libraryapi.service.impl;
+
+import com.flavio.libraryapi.exception.BookNotFoundException;
+import com.flavio.libraryapi.model.entity.Book;
+import com.flavio.libraryapi.model.repository.AuthorDictionary;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Agrupa as atualizações de livros por id: dentro de uma janela curta só a última
+ * escrita de cada livro é gravada, e o lote inteiro vai num único batch JDBC
+ * numa única transação.
+ *
+ * O future de {@link #submit} sempre completa depois do commit do lote; com ack
+ * QUEUED é quem chama que responde antes disso. Um id que não existe mais completa
+ * com {@link BookNotFoundException}, e se o batch falhar as linhas são regravadas
+ * uma a uma, para que uma linha inválida não derrube as demais. Os contadores
+ * permitem comparar atualizações recebidas com commits efetivamente feitos.
+ */
+@Slf4j
+@Component
+public class BookUpdateCoalescer {
+
+    public enum Acknowledgement { QUEUED, COMMITTED }
+
+    private static final String UPDATE_SQL = "update book set title = ?, author_id = ?, isbn = ? where id = ?";
+
+    private Map<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    private JdbcTemplate jdbcTemplate;
+
+    private AuthorDictionary authors;
+
+    private TransactionTemplate transactionTemplate;
+
+    private boolean enabled;
+
+    private int maxBatch;
+
+    private Acknowledgement acknowledgement;
+
+    private ScheduledExecutorService scheduler;
+
+    private AtomicLong submitted = new AtomicLong();
+
+    private AtomicLong commits = new AtomicLong();
+
+    private AtomicLong rowsWritten = new AtomicLong();
+
+    public BookUpdateCoalescer(JdbcTemplate jdbcTemplate, AuthorDictionary authors,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${library.update-coalescing.enabled:false}") boolean enabled,
+                               @Value("${library.update-coalescing.window-ms:20}") long windowMillis,
+                               @Value("${library.update-coalescing.max-batch:500}") int maxBatch,
+                               @Value("${library.update-coalescing.ack:COMMITTED}") Acknowledgement acknowledgement) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.authors = authors;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.acknowledgement = acknowledgement;
+        if ( enabled ) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor( runnable -> {
+                Thread thread = new Thread(runnable, "book-update-coalescer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.scheduler.scheduleWithFixedDelay(this::flushAll, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Acknowledgement getAcknowledgement() {
+        return acknowledgement;
+    }
+
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    public long getCommits() {
+        return commits.get();
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    public CompletableFuture<Book> submit(Book book) {
+        CompletableFuture<Book> committed = new CompletableFuture<>();
+        submitted.incrementAndGet();
+        pending.compute(book.getId(), (id, current) -> {
+            Pending next = current != null ? current : new Pending();
+            next.book = book;
+            next.waiters.add(committed);
+            return next;
+        });
+        return committed;
+    }
+
+    public void flushAll() {
+        try {
+            while ( !pending.isEmpty() ) {
+                flush();
+            }
+        } catch (RuntimeException ex) {
+            log.error("Falha ao gravar lote de atualizações de livros.", ex);
+        }
+    }
+
+    void flush() {
+        Map<Long, Pending> batch = new LinkedHashMap<>();
+        for ( Long id : pending.keySet() ) {
+            Pending removed = pending.remove(id);
+            if ( removed != null ) {
+                batch.put(id, removed);
+            }
+            if ( batch.size() >= maxBatch ) {
+                break;
+            }
+        }
+        if ( batch.isEmpty() ) {
+            return;
+        }
+
+        List<Pending> rows = new ArrayList<>(batch.values());
+        int[] counts;
+        try {
+            counts = transactionTemplate.execute( status -> jdbcTemplate.batchUpdate(UPDATE_SQL, rows(rows)) );
+        } catch (RuntimeException ex) {
+            log.warn("Falha no lote de {} atualizações de livros; gravando uma a uma.", rows.size(), ex);
+            rows.forEach(this::flushOne);
+            return;
+        }
+        commits.incrementAndGet();
+        for ( int i = 0; i < rows.size(); i++ ) {
+            complete( rows.get(i), counts[i] );
+        }
+    }
+
+    private void flushOne(Pending p) {
+        int count;
+        try {
+            count = transactionTemplate.execute( status -> jdbcTemplate.update(UPDATE_SQL, row(p)) );
+        } catch (RuntimeException ex) {
+            p.waiters.forEach( waiter -> waiter.completeExceptionally(ex) );
+            return;
+        }
+        commits.incrementAndGet();
+        complete(p, count);
+    }
+
+    /**
+     * Zero linhas afetadas é um livro excluído antes do flush; os demais valores,
+     * inclusive SUCCESS_NO_INFO do driver, contam como gravados.
+     */
+    private void complete(Pending p, int count) {
+        if ( count == 0 ) {
+            p.waiters.forEach( waiter -> waiter.completeExceptionally(BookNotFoundException.INSTANCE) );
+            return;
+        }
+        rowsWritten.incrementAndGet();
+        p.waiters.forEach( waiter -> waiter.complete(p.book) );
+    }
+
+    private List<Object[]> rows(Collection<Pending> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        batch.forEach( p -> rows.add(row(p)) );
+        return rows;
+    }
+
+    private Object[] row(Pending p) {
+        return new Object[] {
+                p.book.getTitle(),
+                p.book.getAuthor() == null ? null : authors.idOf(p.book.getAuthor()),
+                p.book.getIsbn(),
+                p.book.getId() };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if ( scheduler != null ) {
+            scheduler.shutdown();
+        }
+        flushAll();
+    }
+
+    private static class Pending {
+
+        private Book book;
+
+        private List<CompletableFuture<Book>> waiters = new ArrayList<>(1);
+    }
+}
@@ -0,0 +1,92 @@
+package com.flavio.libraryapi.service.impl;
+
+import com.flavio.libraryapi.service.event.BookEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lembra por pouco tempo os ids consultados que não existem na base, para que
+ * buscas repetidas por ids inexistentes não cheguem ao banco.
+ *
+ * Quem consulta pega a geração do id com {@link #generation(Long)} antes de ir ao
+ * banco e a devolve em {@link #markMissing(Long, long)}. Todo evento de livro avança
+ * a geração do id, então uma consulta que começou antes de um save concorrente não
+ * grava o id como inexistente depois que o evento já o liberou. As gerações ficam
+ * em faixas por hash do id: colisões só fazem a consulta deixar de gravar.
+ */
+@Component
+public class MissingBookCache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private Map<Long, Long> expirations = new ConcurrentHashMap<>();
+
+    private AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private long ttlMillis;
+
+    private int maxSize;
+
+    public MissingBookCache(@Value("${library.missing-cache.ttl-ms:5000}") long ttlMillis,
+                            @Value("${library.missing-cache.max-size:10000}") int maxSize) {
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+    }
+
+    public boolean isMissing(Long id) {
+        Long expiration = expirations.get(id);
+        if ( expiration == null ) {
+            return false;
+        }
+        if ( expiration < System.currentTimeMillis() ) {
+            expirations.remove(id, expiration);
+            return false;
+        }
+        return true;
+    }
+
+    public long generation(Long id) {
+        return generations.get( stripe(id) );
+    }
+
+    public void markMissing(Long id, long generation) {
+        if ( ttlMillis <= 0 || generation(id) != generation ) {
+            return;
+        }
+        if ( expirations.size() >= maxSize ) {
+            evictOne();
+        }
+        Long expiration = System.currentTimeMillis() + ttlMillis;
+        expirations.put(id, expiration);
+        // um evento entre a checagem e o put já passou pelo remove; desfaz a gravação
+        if ( generation(id) != generation ) {
+            expirations.remove(id, expiration);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookEvent(BookEvent event) {
+        if ( event.getId() != null ) {
+            generations.incrementAndGet( stripe(event.getId()) );
+            expirations.remove(event.getId());
+        }
+    }
+
+    private void evictOne() {
+        Iterator<Long> ids = expirations.keySet().iterator();
+        if ( ids.hasNext() ) {
+            ids.next();
+            ids.remove();
+        }
+    }
+
+    private static int stripe(Long id) {
+        return Long.hashCode(id) & (GENERATION_STRIPES - 1);
+    }
+}
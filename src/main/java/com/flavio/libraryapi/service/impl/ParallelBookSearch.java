@@ -0,0 +1,228 @@
+package com.flavio.libraryapi.service.impl;
+
+import com.flavio.libraryapi.config.datasource.ReadYourWritesTracker;
+import com.flavio.libraryapi.exception.BusinessException;
+import com.flavio.libraryapi.model.entity.Book;
+import com.flavio.libraryapi.model.repository.BookRepository;
+import com.flavio.libraryapi.model.repository.BookSpecifications;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Executa o find filtrado dividindo o espaço de ids em faixas e consultando cada
+ * faixa em paralelo. O paralelismo do pool limita quantas conexões ficam em uso.
+ *
+ * Cada faixa roda numa thread do pool, então a requisição do {@link ReadYourWritesTracker}
+ * e o read-only da transação de quem chamou são capturados antes e refeitos dentro
+ * de cada tarefa, para que a faixa vá ao mesmo banco que a consulta sequencial iria.
+ */
+@Component
+public class ParallelBookSearch {
+
+    private BookRepository repository;
+
+    private boolean enabled;
+
+    private int shards;
+
+    private int maxWindow;
+
+    private PlatformTransactionManager transactionManager;
+
+    private ReadYourWritesTracker readYourWrites;
+
+    private ForkJoinPool pool;
+
+    public ParallelBookSearch(BookRepository repository, PlatformTransactionManager transactionManager,
+                              @Nullable ReadYourWritesTracker readYourWrites,
+                              @Value("${library.search.parallel.enabled:false}") boolean enabled,
+                              @Value("${library.search.parallel.shards:4}") int shards,
+                              @Value("${library.search.parallel.max-window:10000}") int maxWindow) {
+        this.repository = repository;
+        this.transactionManager = transactionManager;
+        this.readYourWrites = readYourWrites;
+        this.enabled = enabled;
+        this.shards = shards;
+        this.maxWindow = maxWindow;
+        if ( enabled ) {
+            if ( shards < 1 ) {
+                throw new IllegalArgumentException("library.search.parallel.shards deve ser maior que zero.");
+            }
+            this.pool = new ForkJoinPool(shards);
+        }
+    }
+
+    public boolean supports(Pageable pageRequest) {
+        return enabled && pageRequest.isPaged()
+                && pageRequest.getOffset() + pageRequest.getPageSize() <= maxWindow;
+    }
+
+    public Page<Book> find(Example<Book> example, Pageable pageRequest) {
+        return find( BookSpecifications.byExample(example), pageRequest );
+    }
+
+    public Page<Book> find(Specification<Book> filter, Pageable pageRequest) {
+        Long min = repository.findMinId();
+        Long max = repository.findMaxId();
+        if ( min == null || max == null ) {
+            return Page.empty(pageRequest);
+        }
+
+        Sort sort = pageRequest.getSort();
+        if ( sort.getOrderFor("id") == null ) {
+            sort = sort.and(Sort.by("id"));
+        }
+        Comparator<Book> comparator = comparator(sort);
+        int window = (int) pageRequest.getOffset() + pageRequest.getPageSize();
+        // as faixas ordenam o autor pelo nome, o mesmo valor que o comparator do merge lê
+        PageRequest shardRequest = PageRequest.of(0, window, BookSpecifications.sortingAuthorByName(sort));
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly( TransactionSynchronizationManager.isCurrentTransactionReadOnly() );
+        List<Callable<Page<Book>>> tasks = new ArrayList<>();
+        for ( long[] range : split(min, max, shards) ) {
+            Specification<Book> specification = inRange(filter, range[0], range[1]);
+            Callable<Page<Book>> task = () -> transaction.execute( status -> repository.findAll(specification, shardRequest) );
+            tasks.add( readYourWrites == null ? task : readYourWrites.withCurrentRequest(task) );
+        }
+
+        List<List<Book>> results = new ArrayList<>();
+        long total = 0;
+        for ( Future<Page<Book>> future : pool.invokeAll(tasks) ) {
+            Page<Book> shardPage = get(future);
+            results.add(shardPage.getContent());
+            total += shardPage.getTotalElements();
+        }
+
+        List<Book> content = merge(results, comparator, pageRequest.getOffset(), pageRequest.getPageSize());
+        return new PageImpl<>(content, pageRequest, total);
+    }
+
+    static List<long[]> split(long min, long max, int shards) {
+        long span = max - min + 1;
+        long step = Math.max(1, (span + shards - 1) / shards);
+        List<long[]> ranges = new ArrayList<>();
+        for ( long from = min; from <= max; from += step ) {
+            ranges.add(new long[] { from, Math.min(max, from + step - 1) });
+        }
+        return ranges;
+    }
+
+    static List<Book> merge(List<List<Book>> shardResults, Comparator<Book> comparator, long offset, int size) {
+        PriorityQueue<Cursor> heap = new PriorityQueue<>( (a, b) -> comparator.compare(a.head, b.head) );
+        for ( List<Book> result : shardResults ) {
+            Iterator<Book> iterator = result.iterator();
+            if ( iterator.hasNext() ) {
+                heap.add(new Cursor(iterator));
+            }
+        }
+
+        List<Book> content = new ArrayList<>(size);
+        long skipped = 0;
+        while ( !heap.isEmpty() && content.size() < size ) {
+            Cursor cursor = heap.poll();
+            if ( skipped < offset ) {
+                skipped++;
+            } else {
+                content.add(cursor.head);
+            }
+            if ( cursor.advance() ) {
+                heap.add(cursor);
+            }
+        }
+        return content;
+    }
+
+    static Comparator<Book> comparator(Sort sort) {
+        Comparator<Book> comparator = (a, b) -> 0;
+        for ( Sort.Order order : sort ) {
+            Comparator<Book> byProperty = byProperty(order);
+            comparator = comparator.thenComparing( order.isAscending() ? byProperty : byProperty.reversed() );
+        }
+        return comparator;
+    }
+
+    private static Comparator<Book> byProperty(Sort.Order order) {
+        Comparator<String> strings = order.isIgnoreCase() ? String.CASE_INSENSITIVE_ORDER : Comparator.naturalOrder();
+        switch ( order.getProperty() ) {
+            case "id":
+                return Comparator.comparing( Book::getId, Comparator.nullsFirst(Comparator.<Long>naturalOrder()) );
+            case "title":
+                return Comparator.comparing( Book::getTitle, Comparator.nullsFirst(strings) );
+            case "author":
+                return Comparator.comparing( Book::getAuthor, Comparator.nullsFirst(strings) );
+            case "isbn":
+                return Comparator.comparing( Book::getIsbn, Comparator.nullsFirst(strings) );
+            default:
+                throw new BusinessException("Propriedade de ordenação inválida: " + order.getProperty());
+        }
+    }
+
+    private static Specification<Book> inRange(Specification<Book> filter, long from, long to) {
+        Specification<Book> range = (root, query, builder) -> builder.between(root.<Long>get("id"), from, to);
+        return range.and(filter);
+    }
+
+    private static Page<Book> get(Future<Page<Book>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Busca paralela interrompida.", ex);
+        } catch (ExecutionException ex) {
+            if ( ex.getCause() instanceof RuntimeException ) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if ( pool != null ) {
+            pool.shutdown();
+        }
+    }
+
+    private static class Cursor {
+
+        private Iterator<Book> iterator;
+
+        private Book head;
+
+        Cursor(Iterator<Book> iterator) {
+            this.iterator = iterator;
+            this.head = iterator.next();
+        }
+
+        boolean advance() {
+            if ( iterator.hasNext() ) {
+                head = iterator.next();
+                return true;
+            }
+            return false;
+        }
+    }
+}
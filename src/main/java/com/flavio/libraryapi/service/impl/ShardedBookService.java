@@ -0,0 +1,244 @@
+package com.flavio.libraryapi.service.impl;
+
+import com.flavio.libraryapi.exception.BookNotFoundException;
+import com.flavio.libraryapi.exception.BusinessException;
+import com.flavio.libraryapi.model.entity.Book;
+import com.flavio.libraryapi.model.id.SnowflakeIdGenerator;
+import com.flavio.libraryapi.model.repository.IsbnRouteRepository;
+import com.flavio.libraryapi.model.repository.ShardedBookRepository;
+import com.flavio.libraryapi.service.BookService;
+import com.flavio.libraryapi.service.event.BookEvent;
+import com.flavio.libraryapi.service.isbn.Isbn;
+import com.flavio.libraryapi.service.suggest.BookSuggestIndex;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * BookService sobre a tabela book particionada por hash do id. Os ids são gerados
+ * no processo e a unicidade do ISBN é garantida pelo índice persistido da chave
+ * numérica do ISBN-13 para o id, reservado antes da escrita no shard.
+ */
+public class ShardedBookService implements BookService {
+
+    private static final int DELETE_CHUNK = 1000;
+
+    private ShardedBookRepository repository;
+
+    private IsbnRouteRepository isbnRoutes;
+
+    private SnowflakeIdGenerator idGenerator;
+
+    private BookSuggestIndex suggestIndex;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private int maxWindow;
+
+    private ForkJoinPool pool;
+
+    public ShardedBookService(ShardedBookRepository repository, IsbnRouteRepository isbnRoutes,
+                              SnowflakeIdGenerator idGenerator, BookSuggestIndex suggestIndex,
+                              ApplicationEventPublisher eventPublisher, int maxWindow) {
+        this.repository = repository;
+        this.isbnRoutes = isbnRoutes;
+        this.idGenerator = idGenerator;
+        this.suggestIndex = suggestIndex;
+        this.eventPublisher = eventPublisher;
+        this.maxWindow = maxWindow;
+        this.pool = new ForkJoinPool(repository.shardCount());
+    }
+
+    @Override
+    public Book save(Book book) {
+        long isbnKey = Isbn.toKey(book.getIsbn());
+        book.setId(idGenerator.nextId());
+        if ( !isbnRoutes.claim(isbnKey, book.getId()) ) {
+            throw BusinessException.DUPLICATED_ISBN;
+        }
+        book.setIsbnKey(isbnKey);
+        try {
+            repository.insert(book);
+        } catch (RuntimeException ex) {
+            isbnRoutes.release(book.getId());
+            throw ex;
+        }
+        publish( BookEvent.saved(book) );
+        return book;
+    }
+
+    @Override
+    public Optional<Book> getById(Long id) {
+        return repository.findById(id);
+    }
+
+    @Override
+    public Optional<Book> getByIsbn(String isbn) {
+        return isbnRoutes.findBookId( Isbn.toKey(isbn) ).flatMap(repository::findById);
+    }
+
+    @Override
+    public void delete(Book book) {
+        if ( book == null || book.getId() == null ) {
+            throw new IllegalArgumentException("Book id cant be null.");
+        }
+        repository.delete(book.getId());
+        isbnRoutes.release(book.getId());
+        publish( BookEvent.deleted(book) );
+    }
+
+    @Override
+    public boolean deleteById(Long id) {
+        if ( id == null ) {
+            throw new IllegalArgumentException("Book id cant be null.");
+        }
+        Optional<Book> book = repository.findById(id);
+        if ( !book.isPresent() || repository.delete(id) == 0 ) {
+            return false;
+        }
+        isbnRoutes.release(id);
+        publish( BookEvent.deleted(book.get()) );
+        return true;
+    }
+
+    @Override
+    public long deleteByIds(Collection<Long> ids) {
+        return ids.stream().filter(Objects::nonNull).distinct().filter(this::deleteById).count();
+    }
+
+    @Override
+    public long deleteByFilter(Book filter) {
+        if ( filter.getId() == null && filter.getTitle() == null
+                && filter.getAuthor() == null && filter.getIsbn() == null ) {
+            throw BusinessException.MISSING_DELETE_FILTER;
+        }
+        long deleted = 0;
+        long removed;
+        List<Book> books;
+        do {
+            books = find(filter, PageRequest.of(0, DELETE_CHUNK)).getContent();
+            removed = deleteByIds( books.stream().map(Book::getId).collect(Collectors.toList()) );
+            deleted += removed;
+        } while ( books.size() == DELETE_CHUNK && removed > 0 );
+        return deleted;
+    }
+
+    @Override
+    public Book update(Book book) {
+        if ( book == null || book.getId() == null ) {
+            throw new IllegalArgumentException("Book id cant be null.");
+        }
+        if ( repository.update(book) == 0 ) {
+            throw BookNotFoundException.INSTANCE;
+        }
+        publish( BookEvent.updated(book) );
+        return book;
+    }
+
+    @Override
+    public CompletableFuture<Book> updateAsync(Book book) {
+        return CompletableFuture.completedFuture( update(book) );
+    }
+
+    /**
+     * Cada shard devolve offset + size linhas para o merge, então a janela é limitada
+     * por library.sharding.max-window; páginas além dela são recusadas.
+     */
+    @Override
+    public Page<Book> find(Book filter, Pageable pageRequest) {
+        long requested = pageRequest.isPaged() ? pageRequest.getOffset() + pageRequest.getPageSize() : Long.MAX_VALUE;
+        if ( requested > maxWindow ) {
+            throw BusinessException.PAGE_OUT_OF_WINDOW;
+        }
+        int window = (int) requested;
+        Sort sort = pageRequest.getSort();
+        if ( sort.getOrderFor("id") == null ) {
+            sort = sort.and(Sort.by("id"));
+        }
+        Sort shardSort = sort;
+
+        List<Callable<Page<Book>>> tasks = new ArrayList<>();
+        for ( int shard = 0; shard < repository.shardCount(); shard++ ) {
+            int current = shard;
+            tasks.add( () -> repository.find(current, filter, shardSort, window) );
+        }
+
+        List<List<Book>> results = new ArrayList<>();
+        long total = 0;
+        for ( Future<Page<Book>> future : pool.invokeAll(tasks) ) {
+            Page<Book> shardPage = get(future);
+            results.add(shardPage.getContent());
+            total += shardPage.getTotalElements();
+        }
+
+        List<Book> content = ParallelBookSearch.merge(results, ParallelBookSearch.comparator(sort),
+                pageRequest.getOffset(), pageRequest.getPageSize());
+        return new PageImpl<>(content, pageRequest, total);
+    }
+
+    @Override
+    public Page<Map<String, Object>> find(Book filter, Pageable pageRequest, Set<String> fields) {
+        List<String> projected = BookServiceImpl.projectableFields(fields);
+        BeanWrapperImpl wrapper = new BeanWrapperImpl();
+        return find(filter, pageRequest).map( book -> {
+            wrapper.setWrappedInstance(book);
+            Map<String, Object> row = new LinkedHashMap<>(projected.size() * 2);
+            projected.forEach( field -> row.put(field, wrapper.getPropertyValue(field)) );
+            return row;
+        });
+    }
+
+    @Override
+    public List<String> suggest(String prefix, int limit) {
+        if ( suggestIndex == null ) {
+            return Collections.emptyList();
+        }
+        return suggestIndex.suggest(prefix, limit);
+    }
+
+    private void publish(BookEvent event) {
+        if ( eventPublisher != null ) {
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    private static Page<Book> get(Future<Page<Book>> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Busca nos shards interrompida.", ex);
+        } catch (ExecutionException ex) {
+            if ( ex.getCause() instanceof RuntimeException ) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,84 @@
+package com.flavio.libraryapi.service.isbn;
+
+import com.flavio.libraryapi.exception.BusinessException;
+
+/**
+ * Normaliza ISBN-10 e ISBN-13 para a chave numérica do ISBN-13 canônico,
+ * validando o prefixo EAN (978 ou 979) e o dígito verificador.
+ */
+public final class Isbn {
+
+    private Isbn() {
+    }
+
+    public static long toKey(String isbn) {
+        Long key = toKeyOrNull(isbn);
+        if ( key == null ) {
+            throw BusinessException.INVALID_ISBN;
+        }
+        return key;
+    }
+
+    public static Long toKeyOrNull(String isbn) {
+        if ( isbn == null ) {
+            return null;
+        }
+        String digits = isbn.replace("-", "").replace(" ", "");
+        if ( digits.length() == 13 && isDigits(digits, 13) && hasBooklandPrefix(digits)
+                && checkDigit13(digits) == digits.charAt(12) - '0' ) {
+            return Long.parseLong(digits);
+        }
+        if ( digits.length() == 10 && isDigits(digits, 9) && isValid10(digits) ) {
+            String isbn13 = "978" + digits.substring(0, 9);
+            return Long.parseLong(isbn13 + checkDigit13(isbn13));
+        }
+        return null;
+    }
+
+    public static String format(long key) {
+        return String.format("%013d", key);
+    }
+
+    public static String withCheckDigit(long first12Digits) {
+        String digits = String.format("%012d", first12Digits);
+        return digits + checkDigit13(digits);
+    }
+
+    private static boolean hasBooklandPrefix(String digits) {
+        return digits.startsWith("978") || digits.startsWith("979");
+    }
+
+    private static boolean isDigits(String value, int length) {
+        for ( int i = 0; i < length; i++ ) {
+            if ( !Character.isDigit(value.charAt(i)) ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isValid10(String digits) {
+        char last = digits.charAt(9);
+        int check;
+        if ( last == 'X' || last == 'x' ) {
+            check = 10;
+        } else if ( Character.isDigit(last) ) {
+            check = last - '0';
+        } else {
+            return false;
+        }
+        int sum = check;
+        for ( int i = 0; i < 9; i++ ) {
+            sum += (digits.charAt(i) - '0') * (10 - i);
+        }
+        return sum % 11 == 0;
+    }
+
+    private static int checkDigit13(String digits) {
+        int sum = 0;
+        for ( int i = 0; i < 12; i++ ) {
+            sum += (digits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
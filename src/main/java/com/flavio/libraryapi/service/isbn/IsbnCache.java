@@ -0,0 +1,79 @@
+package com.flavio.libraryapi.service.isbn;
+
+import com.flavio.libraryapi.model.entity.Book;
+import com.flavio.libraryapi.service.event.BookEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Cache em memória das buscas por ISBN, indexado pela chave numérica do
+ * ISBN-13 em um mapa de chaves long primitivas. Mantido em dia pelos
+ * eventos de livro; desligado por padrão.
+ */
+@Component
+public class IsbnCache {
+
+    private final boolean enabled;
+
+    private final int maxSize;
+
+    private final LongHashMap<Book> byIsbn;
+
+    private final LongHashMap<Long> isbnById;
+
+    public IsbnCache(@Value("${library.isbn-cache.enabled:false}") boolean enabled,
+                     @Value("${library.isbn-cache.max-size:100000}") int maxSize) {
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.byIsbn = new LongHashMap<>(1024);
+        this.isbnById = new LongHashMap<>(1024);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public synchronized Book get(long isbnKey) {
+        return enabled ? byIsbn.get(isbnKey) : null;
+    }
+
+    public synchronized void put(Book book) {
+        if ( !enabled || book.getId() == null || book.getIsbnKey() == null ) {
+            return;
+        }
+        evict(book.getId());
+        if ( byIsbn.size() >= maxSize ) {
+            byIsbn.clear();
+            isbnById.clear();
+        }
+        byIsbn.put(book.getIsbnKey(), book);
+        isbnById.put(book.getId(), book.getIsbnKey());
+    }
+
+    public synchronized void evict(long id) {
+        Long isbnKey = isbnById.remove(id);
+        if ( isbnKey != null ) {
+            byIsbn.remove(isbnKey);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookEvent(BookEvent event) {
+        if ( !enabled || event.getId() == null ) {
+            return;
+        }
+        Long isbnKey = Isbn.toKeyOrNull(event.getIsbn());
+        if ( event.getType() == BookEvent.Type.DELETED || isbnKey == null ) {
+            evict(event.getId());
+            return;
+        }
+        put( Book.builder()
+                .id(event.getId())
+                .title(event.getTitle())
+                .author(event.getAuthor())
+                .isbn(event.getIsbn())
+                .isbnKey(isbnKey)
+                .build() );
+    }
+}
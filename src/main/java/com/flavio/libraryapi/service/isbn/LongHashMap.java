@@ -0,0 +1,128 @@
+package com.flavio.libraryapi.service.isbn;
+
+import java.util.Arrays;
+
+/**
+ * Mapa com chaves long primitivas (endereçamento aberto, sondagem linear),
+ * sem boxing das chaves. Long.MIN_VALUE é reservado para posições vazias.
+ * Não é thread-safe.
+ */
+public class LongHashMap<V> {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+
+    private Object[] values;
+
+    private int size;
+
+    public LongHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit( Math.max(4, expectedSize * 2 - 1) ) << 1;
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int slot = find(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if ( key == EMPTY ) {
+            throw new IllegalArgumentException("Chave reservada.");
+        }
+        if ( (size + 1) * 4 > keys.length * 3 ) {
+            resize(keys.length << 1);
+        }
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while ( keys[slot] != EMPTY ) {
+            if ( keys[slot] == key ) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int slot = find(key);
+        if ( slot < 0 ) {
+            return null;
+        }
+        V previous = (V) values[slot];
+        int mask = keys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while ( keys[next] != EMPTY ) {
+            int home = hash(keys[next]) & mask;
+            if ( ((next - home) & mask) >= ((next - hole) & mask) ) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = EMPTY;
+        values[hole] = null;
+        size--;
+        return previous;
+    }
+
+    public void clear() {
+        allocate(keys.length);
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while ( keys[slot] != EMPTY ) {
+            if ( keys[slot] == key ) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for ( int i = 0; i < oldKeys.length; i++ ) {
+            if ( oldKeys[i] != EMPTY ) {
+                int slot = hash(oldKeys[i]) & (capacity - 1);
+                while ( keys[slot] != EMPTY ) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        values = new Object[capacity];
+        size = 0;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,233 @@
+package com.flavio.libraryapi.service.stats;
+
+import com.flavio.libraryapi.model.repository.BookCatalogScan;
+import com.flavio.libraryapi.service.event.BookEvent;
+import com.flavio.libraryapi.service.isbn.LongHashMap;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Contadores em memória do catálogo: total de livros, livros por autor e ranking
+ * de autores. São montados a partir do banco na inicialização, mantidos pelos
+ * {@link BookEvent} e reconciliados periodicamente com o banco. Os eventos que
+ * chegam durante uma reconciliação são reaplicados sobre a nova contagem.
+ */
+@Slf4j
+@Component
+public class BookStatistics {
+
+    private static final Comparator<AuthorCount> RANKING = Comparator
+            .comparingLong(AuthorCount::getBooks).reversed()
+            .thenComparing(AuthorCount::getAuthor);
+
+    private BookCatalogScan catalog;
+
+    private Counters counters = new Counters();
+
+    private List<BookEvent> duringRebuild;
+
+    private ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private ScheduledExecutorService scheduler;
+
+    public BookStatistics(BookCatalogScan catalog,
+                          @Value("${library.stats.reconcile-interval-ms:300000}") long reconcileMillis) {
+        this.catalog = catalog;
+        if ( reconcileMillis > 0 ) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor( runnable -> {
+                Thread thread = new Thread(runnable, "book-statistics");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.scheduler.scheduleWithFixedDelay(this::reconcile, reconcileMillis, reconcileMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PostConstruct
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            duringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Counters rebuilt = new Counters();
+        try {
+            load(rebuilt);
+        } catch (RuntimeException ex) {
+            lock.writeLock().lock();
+            try {
+                duringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw ex;
+        }
+
+        lock.writeLock().lock();
+        try {
+            duringRebuild.forEach(rebuilt::apply);
+            duringRebuild = null;
+            counters = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void load(Counters rebuilt) {
+        catalog.forEach( book -> rebuilt.add(book.getId(), book.getAuthor()) );
+    }
+
+    public void reconcile() {
+        try {
+            rebuild();
+        } catch (RuntimeException ex) {
+            log.error("Falha ao reconciliar as estatísticas do catálogo.", ex);
+        }
+    }
+
+    public long totalBooks() {
+        lock.readLock().lock();
+        try {
+            return counters.authorByBook.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long totalAuthors() {
+        lock.readLock().lock();
+        try {
+            return counters.books.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long countByAuthor(String author) {
+        lock.readLock().lock();
+        try {
+            return counters.books.getOrDefault(author, 0l);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<AuthorCount> topAuthors(int limit) {
+        lock.readLock().lock();
+        try {
+            List<AuthorCount> top = new ArrayList<>( Math.min(limit, counters.ranking.size()) );
+            for ( AuthorCount count : counters.ranking ) {
+                if ( top.size() >= limit ) {
+                    break;
+                }
+                top.add(count);
+            }
+            return top;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookEvent(BookEvent event) {
+        if ( event.getId() == null ) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            counters.apply(event);
+            if ( duringRebuild != null ) {
+                duringRebuild.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if ( scheduler != null ) {
+            scheduler.shutdown();
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class AuthorCount {
+
+        private final String author;
+
+        private final long books;
+    }
+
+    /**
+     * Aplicar um evento é idempotente: o livro sai da contagem do autor anterior
+     * antes de entrar na do autor atual.
+     */
+    private static class Counters {
+
+        private static final String NO_AUTHOR = "";
+
+        private LongHashMap<String> authorByBook = new LongHashMap<>(1024);
+
+        private Map<String, Long> books = new HashMap<>();
+
+        private NavigableSet<AuthorCount> ranking = new TreeSet<>(RANKING);
+
+        void apply(BookEvent event) {
+            remove(event.getId());
+            if ( event.getType() != BookEvent.Type.DELETED ) {
+                add(event.getId(), event.getAuthor());
+            }
+        }
+
+        void add(long id, String author) {
+            authorByBook.put(id, author == null ? NO_AUTHOR : author);
+            if ( author != null ) {
+                adjust(author, 1);
+            }
+        }
+
+        void remove(long id) {
+            String author = authorByBook.remove(id);
+            if ( author != null && !NO_AUTHOR.equals(author) ) {
+                adjust(author, -1);
+            }
+        }
+
+        private void adjust(String author, long delta) {
+            Long current = books.get(author);
+            if ( current != null ) {
+                ranking.remove(new AuthorCount(author, current));
+            }
+            long updated = (current == null ? 0 : current) + delta;
+            if ( updated > 0 ) {
+                books.put(author, updated);
+                ranking.add(new AuthorCount(author, updated));
+            } else {
+                books.remove(author);
+            }
+        }
+    }
+}
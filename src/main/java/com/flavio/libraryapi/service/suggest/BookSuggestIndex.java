@@ -0,0 +1,109 @@
+package com.flavio.libraryapi.service.suggest;
+
+import com.flavio.libraryapi.model.repository.BookCatalogScan;
+import com.flavio.libraryapi.service.event.BookEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.text.Normalizer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice em memória de títulos e autores para o autocomplete, mantido
+ * incrementalmente a partir dos {@link BookEvent} publicados pelo serviço.
+ */
+@Component
+public class BookSuggestIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private BookCatalogScan catalog;
+
+    private PrefixTrie trie;
+
+    private Map<Long, String[]> entries = new HashMap<>();
+
+    private ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public BookSuggestIndex(BookCatalogScan catalog,
+                            @Value("${library.suggest.max-results:10}") int maxResults) {
+        this.catalog = catalog;
+        this.trie = new PrefixTrie(maxResults);
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            catalog.forEach( book -> index(book.getId(), book.getTitle(), book.getAuthor()) );
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if ( key.isEmpty() || limit <= 0 ) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            return trie.find(key, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookEvent(BookEvent event) {
+        lock.writeLock().lock();
+        try {
+            unindex(event.getId());
+            if ( event.getType() != BookEvent.Type.DELETED ) {
+                index(event.getId(), event.getTitle(), event.getAuthor());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(Long id, String title, String author) {
+        String[] terms = { title, author };
+        for ( String term : terms ) {
+            String key = normalize(term);
+            if ( !key.isEmpty() ) {
+                trie.add(key, term.trim());
+            }
+        }
+        entries.put(id, terms);
+    }
+
+    private void unindex(Long id) {
+        String[] terms = entries.remove(id);
+        if ( terms == null ) {
+            return;
+        }
+        for ( String term : terms ) {
+            trie.remove(normalize(term));
+        }
+    }
+
+    static String normalize(String value) {
+        if ( value == null ) {
+            return "";
+        }
+        String plain = MARKS.matcher( Normalizer.normalize(value, Normalizer.Form.NFD) ).replaceAll("");
+        return SPACES.matcher(plain).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,222 @@
+package com.flavio.libraryapi.service.suggest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+
+/**
+ * Trie radix de prefixos com contagem por termo. Cadeias de nós com um único filho
+ * ficam num só nó, com o trecho no rótulo da aresta; os filhos ficam em arrays
+ * ordenados pelo primeiro caractere do rótulo e são achados por busca binária.
+ * Cada nó guarda em cache os melhores termos da sua subárvore; o cache é
+ * invalidado apenas no caminho do termo alterado.
+ *
+ * Não é thread-safe para escrita: quem usa deve serializar add/remove.
+ */
+public class PrefixTrie {
+
+    private static final Comparator<Node> RANKING = Comparator
+            .comparingInt( (Node node) -> node.count ).reversed()
+            .thenComparing( node -> node.key );
+
+    private final Node root = new Node("");
+
+    private final int maxResults;
+
+    public PrefixTrie(int maxResults) {
+        this.maxResults = maxResults;
+    }
+
+    public void add(String key, String display) {
+        Node node = root;
+        int i = 0;
+        while ( i < key.length() ) {
+            node.top = null;
+            int index = node.indexOf( key.charAt(i) );
+            if ( index < 0 ) {
+                Node leaf = new Node( key.substring(i) );
+                node.insert(-index - 1, leaf);
+                node = leaf;
+                break;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, i);
+            if ( common < child.label.length() ) {
+                Node split = new Node( child.label.substring(0, common) );
+                child.label = child.label.substring(common);
+                split.insert(0, child);
+                node.children[index] = split;
+                child = split;
+            }
+            node = child;
+            i += common;
+        }
+        node.top = null;
+        if ( node.count == 0 ) {
+            node.key = key;
+            node.display = display;
+        }
+        node.count++;
+    }
+
+    public void remove(String key) {
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        int i = 0;
+        while ( i < key.length() ) {
+            int index = node.indexOf( key.charAt(i) );
+            if ( index < 0 || !key.startsWith(node.children[index].label, i) ) {
+                return;
+            }
+            path.push(node);
+            node = node.children[index];
+            i += node.label.length();
+        }
+        if ( node.count == 0 ) {
+            return;
+        }
+
+        path.forEach( parent -> parent.top = null );
+        node.top = null;
+        if ( --node.count > 0 ) {
+            return;
+        }
+        node.key = null;
+        node.display = null;
+        if ( node == root ) {
+            return;
+        }
+
+        Node parent = path.pop();
+        if ( node.children.length == 0 ) {
+            parent.remove( parent.indexOf(node.label.charAt(0)) );
+            if ( parent == root || parent.count > 0 || parent.children.length != 1 ) {
+                return;
+            }
+            node = parent;
+            parent = path.pop();
+        } else if ( node.children.length != 1 ) {
+            return;
+        }
+        // nó sem termo e com um só filho: o rótulo dele passa para o filho
+        Node child = node.children[0];
+        child.label = node.label + child.label;
+        parent.children[ parent.indexOf(child.label.charAt(0)) ] = child;
+    }
+
+    public List<String> find(String prefix, int limit) {
+        Node node = root;
+        int i = 0;
+        while ( i < prefix.length() ) {
+            int index = node.indexOf( prefix.charAt(i) );
+            if ( index < 0 ) {
+                return Collections.emptyList();
+            }
+            node = node.children[index];
+            int length = Math.min( node.label.length(), prefix.length() - i );
+            if ( !prefix.regionMatches(i, node.label, 0, length) ) {
+                return Collections.emptyList();
+            }
+            i += length;
+        }
+
+        List<Node> top = node.top;
+        if ( top == null ) {
+            top = collectTop(node);
+            node.top = top;
+        }
+        return top.stream()
+                .limit( Math.min(limit, maxResults) )
+                .map( n -> n.display )
+                .collect(Collectors.toList());
+    }
+
+    private List<Node> collectTop(Node start) {
+        PriorityQueue<Node> best = new PriorityQueue<>( RANKING.reversed() );
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(start);
+        while ( !pending.isEmpty() ) {
+            Node node = pending.pop();
+            if ( node.count > 0 ) {
+                best.add(node);
+                if ( best.size() > maxResults ) {
+                    best.poll();
+                }
+            }
+            for ( Node child : node.children ) {
+                pending.push(child);
+            }
+        }
+        List<Node> top = new ArrayList<>(best);
+        top.sort(RANKING);
+        return Collections.unmodifiableList(top);
+    }
+
+    private static int commonPrefix(String label, String key, int from) {
+        int max = Math.min( label.length(), key.length() - from );
+        int common = 0;
+        while ( common < max && label.charAt(common) == key.charAt(from + common) ) {
+            common++;
+        }
+        return common;
+    }
+
+    private static class Node {
+
+        private static final char[] NO_FIRSTS = new char[0];
+
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private String label;
+
+        private char[] firsts = NO_FIRSTS;
+
+        private Node[] children = NO_CHILDREN;
+
+        private String key;
+
+        private String display;
+
+        private int count;
+
+        private volatile List<Node> top;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        int indexOf(char first) {
+            return Arrays.binarySearch(firsts, first);
+        }
+
+        void insert(int index, Node child) {
+            char[] newFirsts = new char[firsts.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(firsts, 0, newFirsts, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newFirsts[index] = child.label.charAt(0);
+            newChildren[index] = child;
+            System.arraycopy(firsts, index, newFirsts, index + 1, firsts.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            firsts = newFirsts;
+            children = newChildren;
+        }
+
+        void remove(int index) {
+            char[] newFirsts = new char[firsts.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(firsts, 0, newFirsts, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(firsts, index + 1, newFirsts, index, firsts.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            firsts = newFirsts;
+            children = newChildren;
+        }
+    }
+}
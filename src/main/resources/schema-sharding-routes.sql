@@ -0,0 +1,6 @@
+create table if not exists book_isbn_route (
+    isbn_key bigint not null primary key,
+    book_id bigint not null
+);
+
+create index if not exists idx_book_isbn_route_book on book_isbn_route (book_id);
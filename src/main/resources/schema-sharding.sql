@@ -0,0 +1,13 @@
+create table if not exists book (
+    id bigint not null primary key,
+    title varchar(255),
+    author varchar(255),
+    isbn varchar(255),
+    isbn_key bigint
+);
+
+alter table book add column if not exists isbn_key bigint;
+
+create index if not exists idx_book_isbn on book (isbn);
+
+create unique index if not exists idx_book_isbn_key on book (isbn_key);
@@ -0,0 +1,282 @@
+package com.flavio.libraryapi.loadtest;
+
+import com.flavio.libraryapi.LibraryApiApplication;
+import com.flavio.libraryapi.api.dto.BookDTO;
+import com.flavio.libraryapi.model.entity.Book;
+import com.flavio.libraryapi.model.repository.BookRepository;
+import com.flavio.libraryapi.reactive.ReactiveLibraryApiApplication;
+import com.flavio.libraryapi.reactive.repository.ReactiveBookRepository;
+import com.flavio.libraryapi.service.isbn.Isbn;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara a API servlet (Tomcat + JPA) com a variante reativa (Netty + R2DBC)
+ * sob a mesma carga, uma variante por vez no mesmo processo. As duas usam o mesmo
+ * esquema (book.author_id com o dicionário author) e as mesmas consultas, inclusive
+ * o join com author só quando o find filtra ou ordena por autor.
+ *
+ * Mesmo modelo aberto do {@link BookApiLoadTest}, mas o cliente é não bloqueante:
+ * com taxas e conexões altas, o limite de concorrência medido é o do servidor e
+ * não o de um pool de threads do gerador. Rodar com {@code mvn test -Preactive,loadtest};
+ * o resultado vai para {@code reactive-comparison.csv}.
+ */
+@Tag("loadtest")
+public class ReactiveComparisonLoadTest {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    int rate = Integer.getInteger("loadtest.rate", 2000);
+
+    int durationSeconds = Integer.getInteger("loadtest.duration", 30);
+
+    int connections = Integer.getInteger("loadtest.connections", 1000);
+
+    int books = Integer.getInteger("loadtest.books", 10000);
+
+    String mix = System.getProperty("loadtest.mix", "get=60,find=30,create=10");
+
+    File output = new File(System.getProperty("loadtest.output", "target/loadtest"));
+
+    AtomicLong isbnSequence = new AtomicLong();
+
+    @Test
+    @DisplayName("Deve medir latência e vazão das variantes servlet e reativa com a mesma carga.")
+    public void servletVersusReactiveTest() throws Exception {
+
+        // execucao
+        List<Variant> variants = new ArrayList<>();
+        try ( ConfigurableApplicationContext context = new SpringApplicationBuilder(LibraryApiApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .profiles("test")
+                .properties("server.port=0", "spring.devtools.restart.enabled=false")
+                .run() ) {
+            variants.add( run("servlet", context, seedServlet(context.getBean(BookRepository.class))) );
+        }
+        try ( ConfigurableApplicationContext context = new SpringApplicationBuilder(ReactiveLibraryApiApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("test", "reactive")
+                .properties("server.port=0", "spring.devtools.restart.enabled=false")
+                .run() ) {
+            variants.add( run("reactive", context, seedReactive(context.getBean(ReactiveBookRepository.class))) );
+        }
+
+        // verificacao
+        report(variants);
+        variants.forEach( variant -> variant.operations.values().forEach( operation ->
+                assertThat( operation.histogram.getTotalCount() )
+                        .as("requisições de %s em %s", operation.name, variant.name)
+                        .isGreaterThan(0) ) );
+    }
+
+    private Variant run(String name, ConfigurableApplicationContext context, List<Long> seededIds)
+            throws InterruptedException {
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        ConnectionProvider provider = ConnectionProvider.fixed("loadtest-" + name, connections);
+        WebClient client = WebClient.builder()
+                .baseUrl("http://localhost:" + port + "/api/books")
+                .clientConnector( new ReactorClientHttpConnector(HttpClient.create(provider)) )
+                .build();
+        Variant variant = new Variant(name, client, seededIds);
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = (long) rate * durationSeconds;
+        long start = System.nanoTime();
+        for ( long i = 0; i < total; i++ ) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if ( wait > 0 ) {
+                LockSupport.parkNanos(wait);
+            }
+            variant.pick().run(intended);
+        }
+        variant.awaitInFlight();
+        variant.elapsedNanos = System.nanoTime() - start;
+        provider.dispose();
+        return variant;
+    }
+
+    private List<Long> seedServlet(BookRepository repository) {
+        List<Long> ids = new ArrayList<>();
+        List<Book> batch = new ArrayList<>();
+        for ( int i = 0; i < books; i++ ) {
+            batch.add( seedBook(i) );
+            if ( batch.size() == 1000 || i == books - 1 ) {
+                repository.saveAll(batch).forEach( book -> ids.add(book.getId()) );
+                batch.clear();
+            }
+        }
+        return ids;
+    }
+
+    private List<Long> seedReactive(ReactiveBookRepository repository) {
+        return Flux.range(0, books)
+                .flatMap( i -> repository.insert( seedBook(i) ), 16 )
+                .map(Book::getId)
+                .collectList()
+                .block();
+    }
+
+    private Book seedBook(int i) {
+        String isbn = Isbn.withCheckDigit(978000000000l + i);
+        return Book.builder()
+                .title("Livro " + i)
+                .author("Autor " + (i % 200))
+                .isbn(isbn)
+                .isbnKey(Isbn.toKey(isbn))
+                .build();
+    }
+
+    private BookDTO newBook() {
+        long sequence = isbnSequence.incrementAndGet();
+        return BookDTO.builder().title("Carga " + sequence).author("Autor carga").isbn(Isbn.withCheckDigit(979000000000l + sequence)).build();
+    }
+
+    private void report(List<Variant> variants) throws IOException {
+        if ( !output.isDirectory() && !output.mkdirs() ) {
+            throw new IOException("Não foi possível criar " + output);
+        }
+        try ( PrintStream summary = new PrintStream(new File(output, "reactive-comparison.csv"), "UTF-8") ) {
+            summary.println("variant,operation,count,errors,throughput,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+            for ( Variant variant : variants ) {
+                double elapsedSeconds = variant.elapsedNanos / 1e9;
+                for ( Operation operation : variant.operations.values() ) {
+                    Histogram histogram = operation.histogram;
+                    summary.printf("%s,%s,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                            variant.name,
+                            operation.name,
+                            histogram.getTotalCount(),
+                            operation.errors.get(),
+                            histogram.getTotalCount() / elapsedSeconds,
+                            histogram.getValueAtPercentile(50) / 1000.0,
+                            histogram.getValueAtPercentile(90) / 1000.0,
+                            histogram.getValueAtPercentile(99) / 1000.0,
+                            histogram.getValueAtPercentile(99.9) / 1000.0,
+                            histogram.getMaxValue() / 1000.0);
+                    try ( PrintStream distribution = new PrintStream(
+                            new File(output, variant.name + "-" + operation.name + ".hgrm"), "UTF-8") ) {
+                        histogram.outputPercentileDistribution(distribution, 1000.0);
+                    }
+                }
+            }
+        }
+    }
+
+    private class Variant {
+
+        private String name;
+
+        private WebClient client;
+
+        private List<Long> seededIds;
+
+        private Map<String, Operation> operations = new LinkedHashMap<>();
+
+        private AtomicLong inFlight = new AtomicLong();
+
+        private long elapsedNanos;
+
+        Variant(String name, WebClient client, List<Long> seededIds) {
+            this.name = name;
+            this.client = client;
+            this.seededIds = seededIds;
+            for ( String entry : mix.split(",") ) {
+                String[] parts = entry.trim().split("=");
+                operations.put( parts[0], new Operation(this, parts[0], Integer.parseInt(parts[1])) );
+            }
+        }
+
+        Operation pick() {
+            int totalWeight = operations.values().stream().mapToInt( operation -> operation.weight ).sum();
+            int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+            for ( Operation operation : operations.values() ) {
+                roll -= operation.weight;
+                if ( roll < 0 ) {
+                    return operation;
+                }
+            }
+            throw new IllegalStateException("Mistura de operações inválida.");
+        }
+
+        void awaitInFlight() throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(5);
+            while ( inFlight.get() > 0 && System.nanoTime() < deadline ) {
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+        }
+
+        Mono<?> request(String operation) {
+            switch (operation) {
+                case "get":
+                    long id = seededIds.get( ThreadLocalRandom.current().nextInt(seededIds.size()) );
+                    return client.get().uri("/{id}", id).retrieve().bodyToMono(BookDTO.class);
+                case "find":
+                    return client.get().uri("?title={title}&page=0&size=20",
+                            "Livro " + ThreadLocalRandom.current().nextInt(100))
+                            .retrieve().bodyToMono(String.class);
+                case "create":
+                    return client.post().bodyValue( newBook() ).retrieve().bodyToMono(BookDTO.class);
+                default:
+                    throw new IllegalArgumentException("Operação desconhecida: " + operation);
+            }
+        }
+    }
+
+    private class Operation {
+
+        private Variant variant;
+
+        private String name;
+
+        private int weight;
+
+        private Histogram histogram = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+
+        private AtomicLong errors = new AtomicLong();
+
+        Operation(Variant variant, String name, int weight) {
+            this.variant = variant;
+            this.name = name;
+            this.weight = weight;
+        }
+
+        void run(long intendedNanos) {
+            variant.inFlight.incrementAndGet();
+            variant.request(name)
+                    .doOnError( ex -> errors.incrementAndGet() )
+                    .doFinally( signal -> {
+                        long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedNanos);
+                        histogram.recordValue( Math.min(latencyMicros, MAX_LATENCY_MICROS) );
+                        variant.inFlight.decrementAndGet();
+                    } )
+                    .subscribe( result -> { }, ex -> { } );
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.flavio.libraryapi.reactive.api;
+
+import com.flavio.libraryapi.api.dto.BookDTO;
+import com.flavio.libraryapi.exception.BusinessException;
+import com.flavio.libraryapi.model.entity.Book;
+import com.flavio.libraryapi.reactive.ReactiveLibraryApiApplication;
+import com.flavio.libraryapi.reactive.ReactiveWebConfig;
+import com.flavio.libraryapi.reactive.service.ReactiveBookService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles({ "test", "reactive" })
+@WebFluxTest(controllers = ReactiveBookController.class)
+@ContextConfiguration(classes = ReactiveLibraryApiApplication.class)
+public class ReactiveBookControllerTest {
+
+    static String BOOK_API = "/api/books";
+
+    @Autowired
+    WebTestClient client;
+
+    @MockBean
+    ReactiveBookService service;
+
+    @Test
+    @DisplayName("Deve criar um livro com sucesso.")
+    public void createBookTest() {
+
+        // cenario
+        Book savedBook = Book.builder().id(10l).author("Artur").title("As aventuras").isbn("9780306406157").build();
+        BDDMockito.given( service.save(Mockito.any(Book.class)) ).willReturn( Mono.just(savedBook) );
+
+        // execucao e verificacao
+        client.post().uri(BOOK_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue( createNewBook() )
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("id").isEqualTo(10)
+                .jsonPath("isbn").isEqualTo("9780306406157");
+    }
+
+    @Test
+    @DisplayName("Deve lançar erro de validação com o mesmo formato da API servlet.")
+    public void createInvalidBookTest() {
+
+        // execucao e verificacao
+        client.post().uri(BOOK_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue( new BookDTO() )
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("errors.length()").isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Deve lançar erro de negócio com o mesmo formato da API servlet.")
+    public void createBookWithDuplicatedIsbnTest() {
+
+        // cenario
+        BDDMockito.given( service.save(Mockito.any(Book.class)) )
+                .willReturn( Mono.error(new BusinessException("Isbn já cadastrado.")) );
+
+        // execucao e verificacao
+        client.post().uri(BOOK_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue( createNewBook() )
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("errors[0]").isEqualTo("Isbn já cadastrado.");
+    }
+
+    @Test
+    @DisplayName("Deve retornar resource not found quando o livro procurado não existir.")
+    public void bookNotFoundTest() {
+
+        // cenario
+        BDDMockito.given( service.getById(Mockito.anyLong()) ).willReturn( Mono.empty() );
+
+        // execucao e verificacao
+        client.get().uri(BOOK_API + "/1")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("errors[0]").isEqualTo("Livro não encontrado.");
+    }
+
+    @Test
+    @DisplayName("Deve filtrar livros com a mesma página da API servlet.")
+    public void findBooksTest() {
+
+        // cenario
+        Book book = Book.builder().id(1l).author("Artur").title("As aventuras").isbn("9780306406157").build();
+        BDDMockito.given( service.find(Mockito.any(Book.class), Mockito.any(Pageable.class)) )
+                .willReturn( Mono.just(new PageImpl<>(Arrays.asList(book), PageRequest.of(0, 100), 1)) );
+
+        // execucao e verificacao
+        client.get().uri(BOOK_API + "?title=aventuras&page=0&size=100")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("content.length()").isEqualTo(1)
+                .jsonPath("totalElements").isEqualTo(1)
+                .jsonPath("pageable.pageSize").isEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Deve transmitir o resultado do find como stream.")
+    public void streamBooksTest() {
+
+        // cenario
+        BDDMockito.given( service.stream(Mockito.any(Book.class), Mockito.any(Sort.class), Mockito.anyLong()) )
+                .willReturn( Flux.just(
+                        Book.builder().id(1l).title("A").build(),
+                        Book.builder().id(2l).title("B").build() ) );
+
+        // execucao e verificacao
+        client.get().uri(BOOK_API + "/stream?sort=title")
+                .accept(MediaType.APPLICATION_STREAM_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(BookDTO.class)
+                .hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Deve limitar o stream ao tamanho máximo de página.")
+    public void streamLimitTest() {
+
+        // cenario
+        BDDMockito.given( service.stream(Mockito.any(Book.class), Mockito.any(Sort.class), Mockito.anyLong()) )
+                .willReturn( Flux.empty() );
+
+        // execucao
+        client.get().uri(BOOK_API + "/stream").accept(MediaType.APPLICATION_STREAM_JSON)
+                .exchange().expectStatus().isOk();
+        client.get().uri(BOOK_API + "/stream?limit=5000").accept(MediaType.APPLICATION_STREAM_JSON)
+                .exchange().expectStatus().isOk();
+        client.get().uri(BOOK_API + "/stream?limit=10").accept(MediaType.APPLICATION_STREAM_JSON)
+                .exchange().expectStatus().isOk();
+
+        // verificacao
+        Mockito.verify(service, Mockito.times(2))
+                .stream(Mockito.any(Book.class), Mockito.any(Sort.class), Mockito.eq((long) ReactiveWebConfig.MAX_PAGE_SIZE));
+        Mockito.verify(service).stream(Mockito.any(Book.class), Mockito.any(Sort.class), Mockito.eq(10l));
+    }
+
+    @Test
+    @DisplayName("Deve responder 400 ao ordenar por uma propriedade desconhecida.")
+    public void findWithInvalidSortTest() {
+
+        // cenario
+        BDDMockito.given( service.find(Mockito.any(Book.class), Mockito.any(Pageable.class)) )
+                .willReturn( Mono.error( new BusinessException("Propriedade de ordenação inválida: editora") ) );
+
+        // execucao e verificacao
+        client.get().uri(BOOK_API + "?page=0&size=10&sort=editora")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("errors.length()").isEqualTo(1)
+                .jsonPath("errors[0]").isEqualTo("Propriedade de ordenação inválida: editora");
+    }
+
+    private BookDTO createNewBook() {
+        return BookDTO.builder().author("Artur").title("As aventuras").isbn("9780306406157").build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.flavio.libraryapi.reactive.repository;
+
+import com.flavio.libraryapi.exception.BusinessException;
+import com.flavio.libraryapi.model.entity.Book;
+import com.flavio.libraryapi.service.isbn.Isbn;
+import io.r2dbc.spi.ConnectionFactories;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.util.StreamUtils;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReactiveBookRepositoryTest {
+
+    DatabaseClient client;
+
+    ReactiveBookRepository repository;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        this.client = DatabaseClient.create(
+                ConnectionFactories.get("r2dbc:h2:mem:///reactive-repository-test?options=DB_CLOSE_DELAY=-1") );
+        String schema = StreamUtils.copyToString(
+                new ClassPathResource("schema-reactive.sql").getInputStream(), StandardCharsets.UTF_8 );
+        for ( String statement : schema.split(";") ) {
+            if ( !statement.trim().isEmpty() ) {
+                client.execute(statement).fetch().rowsUpdated().block();
+            }
+        }
+        this.repository = new ReactiveBookRepository(client, new ReactiveAuthorDictionary(client));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        client.execute("delete from book").fetch().rowsUpdated().block();
+        client.execute("delete from author").fetch().rowsUpdated().block();
+    }
+
+    @Test
+    @DisplayName("Deve salvar um livro e obtê-lo pelo id e pelo isbn.")
+    public void insertAndFindTest() {
+
+        // execucao
+        Book saved = repository.insert( createBook("Aventuras", 1) ).block();
+
+        // verificacao
+        assertThat( saved.getId() ).isNotNull();
+        StepVerifier.create( repository.findById(saved.getId()) )
+                .assertNext( book -> {
+                    assertThat( book.getTitle() ).isEqualTo("Aventuras");
+                    assertThat( book.getAuthor() ).isEqualTo("Fulano");
+                })
+                .verifyComplete();
+        StepVerifier.create( repository.findByIsbnKey(saved.getIsbnKey()) )
+                .assertNext( book -> assertThat( book.getId() ).isEqualTo( saved.getId() ) )
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Deve entregar o resultado do find conforme a demanda do assinante.")
+    public void findWithBackpressureTest() {
+
+        // cenario
+        Flux.range(0, 10)
+                .concatMap( i -> repository.insert( createBook("Livro " + i, i) ) )
+                .blockLast();
+        repository.insert( createBook("Outro", 99) ).block();
+
+        // execucao e verificacao
+        StepVerifier.create( repository.find( Book.builder().title("livro").build(),
+                Sort.by(Sort.Direction.DESC, "title"), 0, -1 ), 0 )
+                .thenRequest(2)
+                .assertNext( book -> assertThat( book.getTitle() ).isEqualTo("Livro 9") )
+                .assertNext( book -> assertThat( book.getTitle() ).isEqualTo("Livro 8") )
+                .thenRequest(Long.MAX_VALUE)
+                .expectNextCount(8)
+                .verifyComplete();
+        StepVerifier.create( repository.count( Book.builder().title("livro").build() ) )
+                .expectNext(10l)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Deve gravar o autor uma única vez e filtrar e ordenar pelo nome dele.")
+    public void findByAuthorTest() {
+
+        // cenario
+        repository.insert( createBook("Primeiro", 1) ).block();
+        repository.insert( createBook("Segundo", 2) ).block();
+        Book other = createBook("Terceiro", 3);
+        other.setAuthor("Beltrano");
+        repository.insert(other).block();
+
+        // execucao e verificacao
+        StepVerifier.create( client.execute("select count(*) from author")
+                .map( (row, metadata) -> row.get(0, Long.class) ).one() )
+                .expectNext(2l)
+                .verifyComplete();
+        StepVerifier.create( repository.find( Book.builder().author("fula").build(), Sort.by("title"), 0, -1 ) )
+                .assertNext( book -> assertThat( book.getTitle() ).isEqualTo("Primeiro") )
+                .assertNext( book -> assertThat( book.getAuthor() ).isEqualTo("Fulano") )
+                .verifyComplete();
+        StepVerifier.create( repository.find( new Book(), Sort.by("author"), 0, 1 ) )
+                .assertNext( book -> assertThat( book.getAuthor() ).isEqualTo("Beltrano") )
+                .verifyComplete();
+        StepVerifier.create( repository.count( Book.builder().author("BELTRANO").build() ) )
+                .expectNext(1l)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Deve lançar erro de negócio ao ordenar por uma coluna desconhecida.")
+    public void findWithInvalidSortTest() {
+
+        // execucao
+        Throwable exception = Assertions.catchThrowable( () ->
+                repository.find( new Book(), Sort.by("editora"), 0, -1 ) );
+
+        // verificacao
+        assertThat( exception )
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Propriedade de ordenação inválida: editora");
+    }
+
+    private static Book createBook(String title, long sequence) {
+        String isbn = Isbn.withCheckDigit(978000000000l + sequence);
+        return Book.builder().author("Fulano").title(title).isbn(isbn).isbnKey(Isbn.toKey(isbn)).build();
+    }
+}
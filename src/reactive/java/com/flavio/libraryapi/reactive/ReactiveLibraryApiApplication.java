@@ -0,0 +1,75 @@
+package com.flavio.libraryapi.reactive;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.r2dbc.connectionfactory.init.ConnectionFactoryInitializer;
+import org.springframework.data.r2dbc.connectionfactory.init.ResourceDatabasePopulator;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+
+/**
+ * Variante reativa da API de livros (WebFlux sobre Netty e R2DBC), com o mesmo
+ * contrato de /api/books. Só sobe com o profile reactive, para que a aplicação
+ * servlet ignore este pacote. Empacotar com {@code mvn package -Preactive}.
+ */
+@Profile("reactive")
+@SpringBootApplication(exclude = { DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class })
+public class ReactiveLibraryApiApplication {
+
+	@Bean
+	public ModelMapper modelMapper() {
+		return new ModelMapper();
+	}
+
+	@Bean
+	public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+		return new NettyReactiveWebServerFactory();
+	}
+
+	/**
+	 * Pool de conexões com o mesmo tamanho padrão do Hikari da variante servlet, para
+	 * que a comparação entre as duas meça o modelo de execução e não o acesso ao banco.
+	 */
+	@Bean(destroyMethod = "dispose")
+	public ConnectionPool connectionFactory(
+			@Value("${library.reactive.r2dbc-url:r2dbc:h2:mem:///library-reactive?options=DB_CLOSE_DELAY=-1}") String url,
+			@Value("${library.reactive.pool.max-size:10}") int maxSize) {
+		return new ConnectionPool( ConnectionPoolConfiguration.builder( ConnectionFactories.get(url) )
+				.initialSize(maxSize)
+				.maxSize(maxSize)
+				.build() );
+	}
+
+	@Bean
+	public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+		return DatabaseClient.create(connectionFactory);
+	}
+
+	@Bean
+	public ConnectionFactoryInitializer schemaInitializer(ConnectionFactory connectionFactory) {
+		ConnectionFactoryInitializer initializer = new ConnectionFactoryInitializer();
+		initializer.setConnectionFactory(connectionFactory);
+		initializer.setDatabasePopulator( new ResourceDatabasePopulator( new ClassPathResource("schema-reactive.sql") ) );
+		return initializer;
+	}
+
+	public static void main(String[] args) {
+		new SpringApplicationBuilder(ReactiveLibraryApiApplication.class)
+				.web(WebApplicationType.REACTIVE)
+				.profiles("reactive")
+				.run(args);
+	}
+
+}
@@ -0,0 +1,22 @@
+package com.flavio.libraryapi.reactive;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.web.ReactivePageableHandlerMethodArgumentResolver;
+import org.springframework.data.web.ReactiveSortHandlerMethodArgumentResolver;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+
+@Profile("reactive")
+@Configuration
+public class ReactiveWebConfig implements WebFluxConfigurer {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        ReactivePageableHandlerMethodArgumentResolver pageable = new ReactivePageableHandlerMethodArgumentResolver();
+        pageable.setMaxPageSize(MAX_PAGE_SIZE);
+        configurer.addCustomResolver(pageable, new ReactiveSortHandlerMethodArgumentResolver());
+    }
+}
@@ -0,0 +1,124 @@
+package com.flavio.libraryapi.reactive.api;
+
+import com.flavio.libraryapi.api.dto.BookDTO;
+import com.flavio.libraryapi.api.exception.ApiErrors;
+import com.flavio.libraryapi.exception.BookNotFoundException;
+import com.flavio.libraryapi.exception.BusinessException;
+import com.flavio.libraryapi.model.entity.Book;
+import com.flavio.libraryapi.reactive.ReactiveWebConfig;
+import com.flavio.libraryapi.reactive.service.ReactiveBookService;
+import org.modelmapper.ModelMapper;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.util.stream.Collectors;
+
+/**
+ * Mesmo contrato de /api/books da aplicação servlet. Além dele, /api/books/stream
+ * devolve o resultado do find sem paginação, como application/stream+json ou
+ * text/event-stream, enviando os livros conforme o cliente consome. O limit do
+ * stream segue o mesmo teto das páginas ({@link ReactiveWebConfig#MAX_PAGE_SIZE}).
+ */
+@Profile("reactive")
+@RestController
+@RequestMapping("/api/books")
+public class ReactiveBookController {
+
+    private ReactiveBookService service;
+
+    private ModelMapper modelMapper;
+
+    public ReactiveBookController(ReactiveBookService service, ModelMapper mapper) {
+        this.service = service;
+        this.modelMapper = mapper;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<BookDTO> create( @RequestBody @Valid BookDTO dto ) {
+        return service.save( modelMapper.map(dto, Book.class) ).map(this::toDTO);
+    }
+
+    @GetMapping("{id}")
+    public Mono<BookDTO> get( @PathVariable Long id ) {
+        return service.getById(id)
+                .map(this::toDTO)
+                .switchIfEmpty( Mono.error(BookNotFoundException.INSTANCE) );
+    }
+
+    @GetMapping("isbn/{isbn}")
+    public Mono<BookDTO> getByIsbn( @PathVariable String isbn ) {
+        return service.getByIsbn(isbn)
+                .map(this::toDTO)
+                .switchIfEmpty( Mono.error(BookNotFoundException.INSTANCE) );
+    }
+
+    @DeleteMapping("{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> delete( @PathVariable Long id ) {
+        return service.deleteById(id)
+                .filter(Boolean::booleanValue)
+                .switchIfEmpty( Mono.error(BookNotFoundException.INSTANCE) )
+                .then();
+    }
+
+    @PutMapping("{id}")
+    public Mono<BookDTO> update( @PathVariable Long id, BookDTO dto ) {
+        return service.getById(id)
+                .switchIfEmpty( Mono.error(BookNotFoundException.INSTANCE) )
+                .flatMap( book -> {
+                    book.setAuthor(dto.getAuthor());
+                    book.setTitle(dto.getTitle());
+                    return service.update(book);
+                })
+                .map(this::toDTO);
+    }
+
+    @GetMapping
+    public Mono<Page<BookDTO>> find( BookDTO dto, Pageable pageRequest ) {
+        return service.find( modelMapper.map(dto, Book.class), pageRequest )
+                .map( result -> new PageImpl<>(
+                        result.getContent().stream().map(this::toDTO).collect(Collectors.toList()),
+                        pageRequest,
+                        result.getTotalElements()) );
+    }
+
+    @GetMapping(value = "stream", produces = { MediaType.APPLICATION_STREAM_JSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    public Flux<BookDTO> stream( BookDTO dto, Sort sort,
+                                 @RequestParam(value = "limit", required = false) Long limit ) {
+        long capped = limit == null || limit < 0 || limit > ReactiveWebConfig.MAX_PAGE_SIZE
+                ? ReactiveWebConfig.MAX_PAGE_SIZE : limit;
+        return service.stream( modelMapper.map(dto, Book.class), sort, capped ).map(this::toDTO);
+    }
+
+    private BookDTO toDTO(Book book) {
+        return modelMapper.map(book, BookDTO.class);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiErrors handleValidationExceptions (WebExchangeBindException ex) {
+        return new ApiErrors( ex.getBindingResult() );
+    }
+
+    @ExceptionHandler(BusinessException.class)
+    public ResponseEntity<Object> handleBusinessExceptions (BusinessException ex) {
+        return ApiErrors.response(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(BookNotFoundException.class)
+    public ResponseEntity<Object> handleNotFoundExceptions (BookNotFoundException ex) {
+        return ApiErrors.response(HttpStatus.NOT_FOUND, ex.getMessage());
+    }
+}
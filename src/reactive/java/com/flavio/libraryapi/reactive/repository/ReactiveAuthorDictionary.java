@@ -0,0 +1,78 @@
+package com.flavio.libraryapi.reactive.repository;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versão R2DBC do {@code AuthorDictionary}: mesma tabela author e o mesmo cache
+ * id <-> nome, para que as duas variantes gravem e leiam o autor do mesmo jeito.
+ * Uma colisão de nome com outro insert concorrente cai na releitura do id.
+ */
+@Profile("reactive")
+@Component
+public class ReactiveAuthorDictionary {
+
+    private static final String SELECT_ID_SQL = "select id from author where name = :name";
+
+    private DatabaseClient client;
+
+    private Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+    private Map<Integer, String> names = new ConcurrentHashMap<>();
+
+    public ReactiveAuthorDictionary(DatabaseClient client) {
+        this.client = client;
+    }
+
+    public Mono<Integer> idOf(String name) {
+        Integer id = ids.get(name);
+        if ( id != null ) {
+            return Mono.just(id);
+        }
+        return selectId(name)
+                .switchIfEmpty( Mono.defer( () -> insert(name) ) )
+                .onErrorResume( DataIntegrityViolationException.class, ex -> selectId(name) )
+                .map( found -> {
+                    cache(found, name);
+                    return found;
+                });
+    }
+
+    public Mono<String> nameOf(Integer id) {
+        String name = names.get(id);
+        if ( name != null ) {
+            return Mono.just(name);
+        }
+        return client.execute("select name from author where id = :id")
+                .bind("id", id)
+                .map( (row, metadata) -> row.get(0, String.class) )
+                .one()
+                .map( found -> cache(id, found) );
+    }
+
+    private Mono<Integer> selectId(String name) {
+        return client.execute(SELECT_ID_SQL)
+                .bind("name", name)
+                .map( (row, metadata) -> row.get(0, Integer.class) )
+                .one();
+    }
+
+    private Mono<Integer> insert(String name) {
+        return client.insert().into("author")
+                .value("name", name)
+                .map( (row, metadata) -> row.get(0, Integer.class) )
+                .one();
+    }
+
+    private String cache(Integer id, String name) {
+        String shared = names.computeIfAbsent(id, key -> name);
+        ids.putIfAbsent(shared, id);
+        return shared;
+    }
+}
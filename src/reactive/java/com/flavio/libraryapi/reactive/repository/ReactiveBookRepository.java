@@ -0,0 +1,208 @@
+package com.flavio.libraryapi.reactive.repository;
+
+import com.flavio.libraryapi.exception.BusinessException;
+import com.flavio.libraryapi.model.entity.Book;
+import io.r2dbc.spi.Row;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Acesso R2DBC à tabela book. Os resultados do find chegam como {@link Flux}
+ * conforme a demanda de quem assina, sem carregar a página inteira em memória.
+ *
+ * Esquema e consultas seguem os da variante servlet: o livro guarda author_id e o
+ * nome vem do {@link ReactiveAuthorDictionary}; só filtro ou ordenação por autor
+ * fazem join com author, como o find por Example do JPA.
+ */
+@Profile("reactive")
+@Repository
+public class ReactiveBookRepository {
+
+    private static final Map<String, String> COLUMNS = new HashMap<>();
+
+    static {
+        COLUMNS.put("id", "b.id");
+        COLUMNS.put("title", "b.title");
+        COLUMNS.put("author", "a.name");
+        COLUMNS.put("isbn", "b.isbn");
+    }
+
+    private static final String COLUMN_LIST = "b.id, b.title, b.author_id, b.isbn, b.isbn_key";
+
+    private static final String SELECT = "select " + COLUMN_LIST + " from book b";
+
+    private static final String AUTHOR_JOIN = " join author a on a.id = b.author_id";
+
+    private DatabaseClient client;
+
+    private ReactiveAuthorDictionary authors;
+
+    public ReactiveBookRepository(DatabaseClient client, ReactiveAuthorDictionary authors) {
+        this.client = client;
+        this.authors = authors;
+    }
+
+    public Mono<Book> insert(Book book) {
+        return authors.idOf(book.getAuthor())
+                .flatMap( authorId -> client.insert().into("book")
+                        .value("title", book.getTitle())
+                        .value("author_id", authorId)
+                        .value("isbn", book.getIsbn())
+                        .value("isbn_key", book.getIsbnKey())
+                        .map( (row, metadata) -> row.get(0, Long.class) )
+                        .one() )
+                .map( id -> {
+                    book.setId(id);
+                    return book;
+                });
+    }
+
+    public Mono<Book> findById(long id) {
+        return client.execute(SELECT + " where b.id = :id")
+                .bind("id", id)
+                .map( (row, metadata) -> toBook(row) )
+                .one()
+                .flatMap(this::withAuthor);
+    }
+
+    public Mono<Book> findByIsbnKey(long isbnKey) {
+        return client.execute(SELECT + " where b.isbn_key = :isbnKey")
+                .bind("isbnKey", isbnKey)
+                .map( (row, metadata) -> toBook(row) )
+                .one()
+                .flatMap(this::withAuthor);
+    }
+
+    public Mono<Boolean> existsByIsbnKey(long isbnKey) {
+        return client.execute("select 1 from book where isbn_key = :isbnKey")
+                .bind("isbnKey", isbnKey)
+                .map( (row, metadata) -> Boolean.TRUE )
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    public Mono<Integer> update(Book book) {
+        return authors.idOf(book.getAuthor())
+                .flatMap( authorId -> client.execute("update book set title = :title, author_id = :authorId where id = :id")
+                        .bind("title", book.getTitle())
+                        .bind("authorId", authorId)
+                        .bind("id", book.getId())
+                        .fetch()
+                        .rowsUpdated() );
+    }
+
+    public Mono<Integer> deleteById(long id) {
+        return client.execute("delete from book where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Mesma semântica do find por Example: filtros não nulos, sem distinção de caixa,
+     * por conteúdo. {@code limit} negativo devolve todas as linhas.
+     */
+    public Flux<Book> find(Book filter, Sort sort, long offset, long limit) {
+        Map<String, Object> args = new LinkedHashMap<>();
+        String orderBy = orderBy(sort);
+        String sql = SELECT + join(filter, sort) + where(filter, args) + orderBy
+                + (limit >= 0 ? " limit " + limit + " offset " + offset : "");
+        DatabaseClient.GenericExecuteSpec spec = client.execute(sql);
+        for ( Map.Entry<String, Object> arg : args.entrySet() ) {
+            spec = spec.bind(arg.getKey(), arg.getValue());
+        }
+        return spec.map( (row, metadata) -> toBook(row) ).all().concatMap(this::withAuthor);
+    }
+
+    public Mono<Long> count(Book filter) {
+        Map<String, Object> args = new LinkedHashMap<>();
+        DatabaseClient.GenericExecuteSpec spec = client.execute(
+                "select count(*) from book b" + join(filter, Sort.unsorted()) + where(filter, args));
+        for ( Map.Entry<String, Object> arg : args.entrySet() ) {
+            spec = spec.bind(arg.getKey(), arg.getValue());
+        }
+        return spec.map( (row, metadata) -> row.get(0, Long.class) ).one();
+    }
+
+    private Mono<Book> withAuthor(Tuple2<Book, Integer> row) {
+        Book book = row.getT1();
+        if ( row.getT2() < 0 ) {
+            return Mono.just(book);
+        }
+        return authors.nameOf( row.getT2() )
+                .map( name -> {
+                    book.setAuthor(name);
+                    return book;
+                })
+                .defaultIfEmpty(book);
+    }
+
+    private static String join(Book filter, Sort sort) {
+        return filter.getAuthor() != null || sort.getOrderFor("author") != null ? AUTHOR_JOIN : "";
+    }
+
+    private static String where(Book filter, Map<String, Object> args) {
+        StringJoiner where = new StringJoiner(" and ", " where ", "").setEmptyValue("");
+        if ( filter.getId() != null ) {
+            where.add("b.id = :id");
+            args.put("id", filter.getId());
+        }
+        addContaining(where, args, "title", "b.title", filter.getTitle());
+        addContaining(where, args, "author", "a.name", filter.getAuthor());
+        addContaining(where, args, "isbn", "b.isbn", filter.getIsbn());
+        return where.toString();
+    }
+
+    private static void addContaining(StringJoiner where, Map<String, Object> args, String name, String column,
+                                      String value) {
+        if ( value == null ) {
+            return;
+        }
+        where.add("lower(" + column + ") like :" + name + " escape '\\'");
+        String escaped = value.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        args.put(name, "%" + escaped + "%");
+    }
+
+    private static String orderBy(Sort sort) {
+        StringJoiner orderBy = new StringJoiner(", ", " order by ", "").setEmptyValue("");
+        for ( Sort.Order order : sort ) {
+            String column = COLUMNS.get(order.getProperty());
+            if ( column == null ) {
+                throw new BusinessException("Propriedade de ordenação inválida: " + order.getProperty());
+            }
+            orderBy.add( (order.isIgnoreCase() ? "lower(" + column + ")" : column)
+                    + (order.isAscending() ? " asc" : " desc") );
+        }
+        return orderBy.toString();
+    }
+
+    /**
+     * O livro sai sem o nome do autor e com o author_id ao lado (-1 quando nulo);
+     * {@link #withAuthor(Tuple2)} resolve o nome pelo dicionário.
+     */
+    private static Tuple2<Book, Integer> toBook(Row row) {
+        Integer authorId = row.get(2, Integer.class);
+        Book book = Book.builder()
+                .id(row.get(0, Long.class))
+                .title(row.get(1, String.class))
+                .isbn(row.get(3, String.class))
+                .isbnKey(row.get(4, Long.class))
+                .build();
+        return Tuples.of( book, authorId == null ? -1 : authorId );
+    }
+}
@@ -0,0 +1,25 @@
+package com.flavio.libraryapi.reactive.service;
+
+import com.flavio.libraryapi.model.entity.Book;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveBookService {
+
+    Mono<Book> save(Book book);
+
+    Mono<Book> getById(Long id);
+
+    Mono<Book> getByIsbn(String isbn);
+
+    Mono<Boolean> deleteById(Long id);
+
+    Mono<Book> update(Book book);
+
+    Mono<Page<Book>> find(Book filter, Pageable pageRequest);
+
+    Flux<Book> stream(Book filter, Sort sort, long limit);
+}
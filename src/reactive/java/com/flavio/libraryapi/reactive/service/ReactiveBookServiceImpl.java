@@ -0,0 +1,79 @@
+package com.flavio.libraryapi.reactive.service;
+
+import com.flavio.libraryapi.exception.BusinessException;
+import com.flavio.libraryapi.model.entity.Book;
+import com.flavio.libraryapi.reactive.repository.ReactiveBookRepository;
+import com.flavio.libraryapi.service.isbn.Isbn;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Profile("reactive")
+@Service
+public class ReactiveBookServiceImpl implements ReactiveBookService {
+
+    private ReactiveBookRepository repository;
+
+    public ReactiveBookServiceImpl(ReactiveBookRepository repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public Mono<Book> save(Book book) {
+        return Mono.fromCallable( () -> Isbn.toKey(book.getIsbn()) )
+                .flatMap( isbnKey -> repository.existsByIsbnKey(isbnKey).flatMap( exists -> {
+                    if ( exists ) {
+                        return Mono.error( BusinessException.DUPLICATED_ISBN );
+                    }
+                    book.setIsbnKey(isbnKey);
+                    return repository.insert(book);
+                }))
+                .onErrorMap( DataIntegrityViolationException.class, ex -> BusinessException.DUPLICATED_ISBN );
+    }
+
+    @Override
+    public Mono<Book> getById(Long id) {
+        return repository.findById(id);
+    }
+
+    @Override
+    public Mono<Book> getByIsbn(String isbn) {
+        return Mono.fromCallable( () -> Isbn.toKey(isbn) ).flatMap(repository::findByIsbnKey);
+    }
+
+    @Override
+    public Mono<Boolean> deleteById(Long id) {
+        if ( id == null ) {
+            return Mono.error( new IllegalArgumentException("Book id cant be null.") );
+        }
+        return repository.deleteById(id).map( deleted -> deleted > 0 );
+    }
+
+    @Override
+    public Mono<Book> update(Book book) {
+        if ( book == null || book.getId() == null ) {
+            return Mono.error( new IllegalArgumentException("Book id cant be null.") );
+        }
+        return repository.update(book).thenReturn(book);
+    }
+
+    @Override
+    public Mono<Page<Book>> find(Book filter, Pageable pageRequest) {
+        Flux<Book> content = pageRequest.isPaged()
+                ? Flux.defer( () -> repository.find(filter, pageRequest.getSort(), pageRequest.getOffset(), pageRequest.getPageSize()) )
+                : Flux.defer( () -> repository.find(filter, pageRequest.getSort(), 0, -1) );
+        return Mono.zip( content.collectList(), repository.count(filter) )
+                .map( result -> new PageImpl<>(result.getT1(), pageRequest, result.getT2()) );
+    }
+
+    @Override
+    public Flux<Book> stream(Book filter, Sort sort, long limit) {
+        return Flux.defer( () -> repository.find(filter, sort, 0, limit) );
+    }
+}
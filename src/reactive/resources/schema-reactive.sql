@@ -0,0 +1,18 @@
+create table if not exists author (
+    id integer auto_increment primary key,
+    name varchar(255) not null,
+    constraint uk_author_name unique (name)
+);
+
+create table if not exists book (
+    id bigint auto_increment primary key,
+    title varchar(255),
+    author_id integer,
+    isbn varchar(255),
+    isbn_key bigint,
+    constraint fk_book_author foreign key (author_id) references author (id)
+);
+
+create unique index if not exists idx_book_isbn_key on book (isbn_key);
+
+create index if not exists idx_book_author_id on book (author_id);
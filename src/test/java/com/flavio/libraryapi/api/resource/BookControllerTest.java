@@ -5,6 +5,7 @@ import com.flavio.libraryapi.api.dto.BookDTO;
 import com.flavio.libraryapi.exception.BusinessException;
 import com.flavio.libraryapi.model.entity.Book;
 import com.flavio.libraryapi.service.BookService;
+import com.flavio.libraryapi.service.stats.BookStatistics;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -22,13 +23,19 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
 import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(SpringExtension.class)
@@ -45,6 +52,9 @@ public class BookControllerTest {
     @MockBean
     BookService service;
 
+    @MockBean
+    BookStatistics statistics;
+
     @Test
     @DisplayName("Deve criar um livro com sucesso.")
     public void createBookTest() throws Exception {
@@ -164,6 +174,50 @@ public class BookControllerTest {
         mvc
                 .perform(request)
                 .andExpect( status().isNotFound() )
+                .andExpect( jsonPath("errors", Matchers.hasSize(1) ) )
+                .andExpect( jsonPath("errors[0]").value("Livro não encontrado.") )
+        ;
+    }
+
+    @Test
+    @DisplayName("Deve obter um livro pelo isbn.")
+    public void getBookByIsbnTest() throws Exception {
+
+        // cenario
+        Book book = Book.builder().id(1l).author("Artur").title("As aventuras").isbn("9780306406157").build();
+        BDDMockito.given( service.getByIsbn("978-0-306-40615-7") ).willReturn( Optional.of(book) );
+
+        // execucao
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("/isbn/978-0-306-40615-7"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        // verificacao
+        mvc
+                .perform(request)
+                .andExpect( status().isOk() )
+                .andExpect( jsonPath("id").value(1) )
+                .andExpect( jsonPath("isbn").value("9780306406157") )
+        ;
+    }
+
+    @Test
+    @DisplayName("Deve retornar erro de validação ao buscar por um isbn inválido.")
+    public void getBookByInvalidIsbnTest() throws Exception {
+
+        // cenario
+        BDDMockito.given( service.getByIsbn("123") ).willThrow( new BusinessException("Isbn inválido.") );
+
+        // execucao
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("/isbn/123"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        // verificacao
+        mvc
+                .perform(request)
+                .andExpect( status().isBadRequest() )
+                .andExpect( jsonPath("errors[0]").value("Isbn inválido.") )
         ;
     }
 
@@ -172,7 +226,7 @@ public class BookControllerTest {
     public void deleteBookTest() throws Exception {
 
         // cenario (given BDD)
-        BDDMockito.given( service.getById(Mockito.anyLong()) ).willReturn(Optional.of(Book.builder().id(1l).build()));
+        BDDMockito.given( service.deleteById(1l) ).willReturn(true);
 
         // execucao
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders
@@ -191,7 +245,7 @@ public class BookControllerTest {
     public void deleteInexistentBookTest() throws Exception {
 
         // cenario (given BDD)
-        BDDMockito.given( service.getById(Mockito.anyLong()) ).willReturn(Optional.empty());
+        BDDMockito.given( service.deleteById(Mockito.anyLong()) ).willReturn(false);
 
         // execucao
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders
@@ -205,6 +259,49 @@ public class BookControllerTest {
         ;
     }
 
+    @Test
+    @DisplayName("Deve excluir em lote os livros informados.")
+    public void deleteBooksByIdsTest() throws Exception {
+
+        // cenario (given BDD)
+        BDDMockito.given( service.deleteByIds(Arrays.asList(1l, 2l, 3l)) ).willReturn(2l);
+
+        // execucao
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .delete(BOOK_API.concat("?ids=1,2,3"))
+                .accept(MediaType.APPLICATION_JSON)
+                ;
+
+        // verificacao
+        mvc
+                .perform(request)
+                .andExpect( status().isOk() )
+                .andExpect( jsonPath("deleted").value(2) )
+        ;
+    }
+
+    @Test
+    @DisplayName("Deve excluir em lote os livros que atendem ao filtro.")
+    public void deleteBooksByFilterTest() throws Exception {
+
+        // cenario (given BDD)
+        BDDMockito.given( service.deleteByFilter(Mockito.any(Book.class)) ).willReturn(5l);
+
+        // execucao
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .delete(BOOK_API.concat("?author=Artur"))
+                .accept(MediaType.APPLICATION_JSON)
+                ;
+
+        // verificacao
+        mvc
+                .perform(request)
+                .andExpect( status().isOk() )
+                .andExpect( jsonPath("deleted").value(5) )
+        ;
+        Mockito.verify(service).deleteByFilter( Mockito.argThat( filter -> "Artur".equals(filter.getAuthor()) ) );
+    }
+
     @Test
     @DisplayName("Deve atualizar um livro.")
     public void updateBookTest() throws  Exception {
@@ -216,7 +313,7 @@ public class BookControllerTest {
         Book updatingBook = Book.builder().id(1l).author("some author").title("some title").isbn("321").build();
         BDDMockito.given( service.getById(id) ).willReturn( Optional.of(updatingBook) );
         Book updatedBook = Book.builder().id(id).author("Artur").title("As aventuras").isbn("321").build();
-        BDDMockito.given( service.update(updatingBook) ).willReturn(updatedBook);
+        BDDMockito.given( service.updateAsync(updatingBook) ).willReturn( CompletableFuture.completedFuture(updatedBook) );
 
         // execucao
         MockHttpServletRequestBuilder request = MockMvcRequestBuilders
@@ -226,8 +323,12 @@ public class BookControllerTest {
                 .content(json);
         ;
 
+        MvcResult result = mvc.perform(request)
+                .andExpect( request().asyncStarted() )
+                .andReturn();
+
         // verificacao
-        mvc.perform(request)
+        mvc.perform( asyncDispatch(result) )
                 .andExpect( status().isOk() )
                 .andExpect( jsonPath("id").value(id) )
                 .andExpect( jsonPath("title").value( createNewBook().getTitle() ) )
@@ -297,6 +398,58 @@ public class BookControllerTest {
         ;
     }
 
+    @Test
+    @DisplayName("Deve filtrar livros retornando apenas os campos pedidos.")
+    public void findBooksWithFieldsTest() throws Exception {
+
+        // cenario (given BDD)
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 1l);
+        row.put("title", createNewBook().getTitle());
+
+        BDDMockito.given( service.find(Mockito.any(Book.class), Mockito.any(Pageable.class), Mockito.anySet()) )
+                .willReturn( new PageImpl<Map<String, Object>>( Arrays.asList(row), PageRequest.of( 0, 100 ), 1 ) );
+
+        // execucao
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?fields=id,title&page=0&size=100"))
+                .accept(MediaType.APPLICATION_JSON)
+        ;
+
+        // verificacao
+        mvc
+            .perform( request )
+            .andExpect( status().isOk() )
+            .andExpect( jsonPath("content", Matchers.hasSize(1)) )
+            .andExpect( jsonPath("content[0].title").value( createNewBook().getTitle() ) )
+            .andExpect( jsonPath("content[0].author").doesNotExist() )
+            .andExpect( jsonPath("content[0].isbn").doesNotExist() )
+        ;
+    }
+
+    @Test
+    @DisplayName("Deve sugerir títulos e autores pelo prefixo.")
+    public void suggestBooksTest() throws Exception {
+
+        // cenario (given BDD)
+        BDDMockito.given( service.suggest("as", 5) )
+                .willReturn( Arrays.asList("As aventuras", "As aventuras 2") );
+
+        // execucao
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders
+                .get(BOOK_API.concat("/suggest?q=as&limit=5"))
+                .accept(MediaType.APPLICATION_JSON)
+        ;
+
+        // verificacao
+        mvc
+            .perform( request )
+            .andExpect( status().isOk() )
+            .andExpect( jsonPath("$", Matchers.hasSize(2)) )
+            .andExpect( jsonPath("[0]").value("As aventuras") )
+        ;
+    }
+
     private BookDTO createNewBook() {
         return BookDTO.builder().author("Artur").title("As aventuras").isbn("001").build();
     }
@@ -0,0 +1,42 @@
+package com.flavio.libraryapi.config;
+
+import com.flavio.libraryapi.model.entity.Book;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WarmUpRecordingTest {
+
+    @Test
+    @DisplayName("Deve extrair os ids, ISBNs e filtros mais pedidos de um access log.")
+    public void readAccessLogTest() throws IOException {
+
+        // cenario
+        String log = String.join("\n",
+                "127.0.0.1 - - [18/Oct/2026:10:00:00 +0000] \"GET /api/books/7 HTTP/1.1\" 200 81",
+                "127.0.0.1 - - [18/Oct/2026:10:00:01 +0000] \"GET /api/books/3 HTTP/1.1\" 200 81",
+                "127.0.0.1 - - [18/Oct/2026:10:00:02 +0000] \"GET /api/books/7 HTTP/1.1\" 200 81",
+                "127.0.0.1 - - [18/Oct/2026:10:00:03 +0000] \"GET /api/books/9 HTTP/1.1\" 404 60",
+                "127.0.0.1 - - [18/Oct/2026:10:00:04 +0000] \"GET /api/books/7 HTTP/1.1\" 200 81",
+                "127.0.0.1 - - [18/Oct/2026:10:00:05 +0000] \"GET /api/books/3 HTTP/1.1\" 200 81",
+                "127.0.0.1 - - [18/Oct/2026:10:00:06 +0000] \"GET /api/books/isbn/9780306406157 HTTP/1.1\" 200 81",
+                "127.0.0.1 - - [18/Oct/2026:10:00:07 +0000] \"GET /api/books/isbn/123 HTTP/1.1\" 400 60",
+                "127.0.0.1 - - [18/Oct/2026:10:00:08 +0000] \"GET /api/books?author=Jos%C3%A9&page=0&size=10 HTTP/1.1\" 200 900",
+                "127.0.0.1 - - [18/Oct/2026:10:00:09 +0000] \"POST /api/books HTTP/1.1\" 201 81",
+                "127.0.0.1 - - [18/Oct/2026:10:00:10 +0000] \"DELETE /api/books/3 HTTP/1.1\" 204 0");
+
+        // execucao
+        WarmUpRecording recording = WarmUpRecording.read(
+                new ByteArrayResource(log.getBytes(StandardCharsets.UTF_8)), 2 );
+
+        // verificacao
+        assertThat( recording.getHotIds() ).containsExactly(7l, 3l);
+        assertThat( recording.getIsbns() ).containsExactly("9780306406157");
+        assertThat( recording.getFilters() ).containsExactly( Book.builder().author("José").build() );
+    }
+}
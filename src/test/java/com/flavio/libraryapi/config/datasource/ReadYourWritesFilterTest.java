@@ -0,0 +1,89 @@
+package com.flavio.libraryapi.config.datasource;
+
+import com.flavio.libraryapi.model.entity.Book;
+import com.flavio.libraryapi.service.event.BookEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.http.Cookie;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReadYourWritesFilterTest {
+
+    ReadYourWritesTracker tracker;
+
+    ReadYourWritesFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        this.tracker = new ReadYourWritesTracker(60000);
+        this.filter = new ReadYourWritesFilter( tracker, "segredo".getBytes(StandardCharsets.UTF_8) );
+    }
+
+    @Test
+    @DisplayName("Deve devolver um token assinado depois de uma escrita.")
+    public void writeReturnsTokenTest() throws Exception {
+
+        // execucao
+        MockHttpServletResponse response = write();
+
+        // verificacao
+        String token = response.getHeader(ReadYourWritesFilter.TOKEN_HEADER);
+        assertThat( token ).isNotNull();
+        assertThat( filter.verify(token) ).isNotNull();
+        assertThat( response.getCookie(ReadYourWritesFilter.TOKEN_COOKIE).getValue() ).isEqualTo(token);
+    }
+
+    @Test
+    @DisplayName("Deve ler do primário quando a requisição traz o token da escrita.")
+    public void tokenReadsFromPrimaryTest() throws Exception {
+
+        // cenario
+        String token = write().getHeader(ReadYourWritesFilter.TOKEN_HEADER);
+        MockHttpServletRequest withHeader = new MockHttpServletRequest();
+        withHeader.addHeader(ReadYourWritesFilter.TOKEN_HEADER, token);
+        MockHttpServletRequest withCookie = new MockHttpServletRequest();
+        withCookie.setCookies( new Cookie(ReadYourWritesFilter.TOKEN_COOKIE, token) );
+
+        // execucao / verificacao
+        assertThat( readsFromPrimary(withHeader) ).isTrue();
+        assertThat( readsFromPrimary(withCookie) ).isTrue();
+        assertThat( readsFromPrimary(new MockHttpServletRequest()) ).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve ignorar tokens sem assinatura válida.")
+    public void forgedTokenTest() throws Exception {
+
+        // cenario
+        ReadYourWritesFilter otherKey = new ReadYourWritesFilter( tracker, "outro".getBytes(StandardCharsets.UTF_8) );
+        MockHttpServletRequest forged = new MockHttpServletRequest();
+        forged.addHeader(ReadYourWritesFilter.TOKEN_HEADER, otherKey.sign(System.currentTimeMillis()));
+        MockHttpServletRequest unsigned = new MockHttpServletRequest();
+        unsigned.addHeader(ReadYourWritesFilter.TOKEN_HEADER, Long.toString(System.currentTimeMillis()));
+
+        // execucao / verificacao
+        assertThat( readsFromPrimary(forged) ).isFalse();
+        assertThat( readsFromPrimary(unsigned) ).isFalse();
+    }
+
+    private MockHttpServletResponse write() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter( new MockHttpServletRequest(), response,
+                (req, res) -> tracker.onBookEvent( BookEvent.saved(Book.builder().id(1l).build()) ) );
+        return response;
+    }
+
+    private boolean readsFromPrimary(MockHttpServletRequest request) throws Exception {
+        AtomicBoolean primary = new AtomicBoolean();
+        filter.doFilter( request, new MockHttpServletResponse(),
+                (req, res) -> primary.set(tracker.mustReadFromPrimary()) );
+        return primary.get();
+    }
+}
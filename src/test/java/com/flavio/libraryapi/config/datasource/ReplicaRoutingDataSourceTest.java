@@ -0,0 +1,81 @@
+package com.flavio.libraryapi.config.datasource;
+
+import com.flavio.libraryapi.model.entity.Book;
+import com.flavio.libraryapi.service.event.BookEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReplicaRoutingDataSourceTest {
+
+    ReadYourWritesTracker tracker;
+
+    ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    public void setUp() {
+        this.tracker = new ReadYourWritesTracker(60000);
+        this.dataSource = new ReplicaRoutingDataSource( Arrays.asList("replica-0", "replica-1"), tracker );
+        this.tracker.bind(null, wroteAt -> {});
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.tracker.unbind();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("Deve enviar escritas para o primário.")
+    public void writeGoesToPrimaryTest() {
+        assertThat( dataSource.determineCurrentLookupKey() ).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("Deve distribuir leituras entre as réplicas.")
+    public void readGoesToReplicasTest() {
+
+        // cenario
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // execucao / verificacao
+        assertThat( dataSource.determineCurrentLookupKey() ).isEqualTo("replica-0");
+        assertThat( dataSource.determineCurrentLookupKey() ).isEqualTo("replica-1");
+        assertThat( dataSource.determineCurrentLookupKey() ).isEqualTo("replica-0");
+    }
+
+    @Test
+    @DisplayName("Deve ler do primário logo após uma escrita na mesma requisição.")
+    public void readYourWritesTest() {
+
+        // cenario
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        tracker.onBookEvent( BookEvent.saved(Book.builder().id(1l).build()) );
+
+        // execucao / verificacao
+        assertThat( dataSource.determineCurrentLookupKey() ).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+
+        tracker.unbind();
+        tracker.bind(null, wroteAt -> {});
+        assertThat( dataSource.determineCurrentLookupKey() ).isEqualTo("replica-0");
+    }
+
+    @Test
+    @DisplayName("Deve voltar às réplicas quando a última escrita passou da janela de aderência.")
+    public void staleWriteGoesToReplicaTest() {
+
+        // cenario
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        tracker.unbind();
+        tracker.bind(System.currentTimeMillis() - 120000, wroteAt -> {});
+
+        // execucao / verificacao
+        assertThat( dataSource.determineCurrentLookupKey() ).isEqualTo("replica-0");
+    }
+}
@@ -0,0 +1,248 @@
+package com.flavio.libraryapi.loadtest;
+
+import com.flavio.libraryapi.api.dto.BookDTO;
+import com.flavio.libraryapi.model.entity.Book;
+import com.flavio.libraryapi.model.repository.BookRepository;
+import com.flavio.libraryapi.service.isbn.Isbn;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Gerador de carga de ponta a ponta contra a API de livros.
+ *
+ * Modelo aberto: as requisições são disparadas em instantes fixos, independente
+ * das respostas anteriores, e a latência é medida a partir do instante planejado
+ * para evitar coordinated omission. Rodar com {@code mvn test -Ploadtest}; os
+ * parâmetros vêm de propriedades de sistema {@code loadtest.*}.
+ */
+@Tag("loadtest")
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class BookApiLoadTest {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    BookRepository repository;
+
+    RestTemplate rest = new RestTemplate();
+
+    String baseUrl;
+
+    List<Long> seededIds = new ArrayList<>();
+
+    ConcurrentLinkedDeque<Long> createdIds = new ConcurrentLinkedDeque<>();
+
+    AtomicLong isbnSequence = new AtomicLong();
+
+    Map<String, Operation> operations = new LinkedHashMap<>();
+
+    @Test
+    @DisplayName("Deve medir latência e vazão da API com uma mistura de operações.")
+    public void mixedWorkloadTest() throws Exception {
+
+        // cenario
+        int rate = Integer.getInteger("loadtest.rate", 200);
+        int durationSeconds = Integer.getInteger("loadtest.duration", 30);
+        int threads = Integer.getInteger("loadtest.threads", 64);
+        int books = Integer.getInteger("loadtest.books", 10000);
+        String mix = System.getProperty("loadtest.mix", "get=50,find=25,create=10,update=10,delete=5");
+        File output = new File(System.getProperty("loadtest.output", "target/loadtest"));
+        long maxP99Millis = Long.getLong("loadtest.max-p99-ms", 0);
+
+        baseUrl = "http://localhost:" + port + "/api/books";
+        seed(books);
+        parseMix(mix);
+
+        // execucao
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long total = (long) rate * durationSeconds;
+        long start = System.nanoTime();
+        for ( long i = 0; i < total; i++ ) {
+            long intended = start + i * intervalNanos;
+            long wait = intended - System.nanoTime();
+            if ( wait > 0 ) {
+                LockSupport.parkNanos(wait);
+            }
+            Operation operation = pick();
+            workers.execute( () -> operation.run(intended) );
+        }
+        workers.shutdown();
+        workers.awaitTermination(5, TimeUnit.MINUTES);
+        long elapsedNanos = System.nanoTime() - start;
+
+        // verificacao
+        report(output, elapsedNanos);
+        if ( maxP99Millis > 0 ) {
+            operations.values().forEach( operation ->
+                    assertThat( operation.histogram.getValueAtPercentile(99) / 1000 )
+                            .as("p99 de %s (ms)", operation.name)
+                            .isLessThanOrEqualTo(maxP99Millis) );
+        }
+    }
+
+    private void seed(int books) {
+        List<Book> batch = new ArrayList<>();
+        for ( int i = 0; i < books; i++ ) {
+            batch.add( Book.builder()
+                    .title("Livro " + i)
+                    .author("Autor " + (i % 200))
+                    .isbn("seed-" + i)
+                    .build() );
+            if ( batch.size() == 1000 || i == books - 1 ) {
+                repository.saveAll(batch).forEach( book -> seededIds.add(book.getId()) );
+                batch.clear();
+            }
+        }
+    }
+
+    private void parseMix(String mix) {
+        for ( String entry : mix.split(",") ) {
+            String[] parts = entry.trim().split("=");
+            operations.put( parts[0], new Operation(parts[0], Integer.parseInt(parts[1])) );
+        }
+    }
+
+    private Operation pick() {
+        int totalWeight = operations.values().stream().mapToInt( operation -> operation.weight ).sum();
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for ( Operation operation : operations.values() ) {
+            roll -= operation.weight;
+            if ( roll < 0 ) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Mistura de operações inválida.");
+    }
+
+    private long randomSeededId() {
+        return seededIds.get( ThreadLocalRandom.current().nextInt(seededIds.size()) );
+    }
+
+    private BookDTO newBook() {
+        long sequence = isbnSequence.incrementAndGet();
+        return BookDTO.builder().title("Carga " + sequence).author("Autor carga").isbn(Isbn.withCheckDigit(979000000000l + sequence)).build();
+    }
+
+    private boolean execute(String name) {
+        switch (name) {
+            case "get":
+                rest.getForObject(baseUrl + "/{id}", BookDTO.class, randomSeededId());
+                return true;
+            case "find":
+                rest.getForObject(baseUrl + "?title={title}&page=0&size=20", String.class,
+                        "Livro " + ThreadLocalRandom.current().nextInt(100));
+                return true;
+            case "create":
+                BookDTO created = rest.postForObject(baseUrl, newBook(), BookDTO.class);
+                createdIds.add(created.getId());
+                return true;
+            case "update":
+                rest.put(baseUrl + "/{id}", newBook(), randomSeededId());
+                return true;
+            case "delete":
+                Long id = createdIds.poll();
+                if ( id == null ) {
+                    return false;
+                }
+                rest.delete(baseUrl + "/{id}", id);
+                return true;
+            default:
+                throw new IllegalArgumentException("Operação desconhecida: " + name);
+        }
+    }
+
+    private void report(File output, long elapsedNanos) throws IOException {
+        if ( !output.isDirectory() && !output.mkdirs() ) {
+            throw new IOException("Não foi possível criar " + output);
+        }
+        double elapsedSeconds = elapsedNanos / 1e9;
+        try ( PrintStream summary = new PrintStream(new File(output, "summary.csv"), "UTF-8") ) {
+            summary.println("operation,count,errors,skipped,throughput,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+            for ( Operation operation : operations.values() ) {
+                Histogram histogram = operation.histogram;
+                summary.printf("%s,%d,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                        operation.name,
+                        histogram.getTotalCount(),
+                        operation.errors.get(),
+                        operation.skipped.get(),
+                        histogram.getTotalCount() / elapsedSeconds,
+                        histogram.getValueAtPercentile(50) / 1000.0,
+                        histogram.getValueAtPercentile(90) / 1000.0,
+                        histogram.getValueAtPercentile(99) / 1000.0,
+                        histogram.getValueAtPercentile(99.9) / 1000.0,
+                        histogram.getMaxValue() / 1000.0);
+                try ( PrintStream distribution = new PrintStream(new File(output, operation.name + ".hgrm"), "UTF-8") ) {
+                    histogram.outputPercentileDistribution(distribution, 1000.0);
+                }
+            }
+        }
+    }
+
+    private class Operation {
+
+        private String name;
+
+        private int weight;
+
+        private Histogram histogram = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+
+        private AtomicLong errors = new AtomicLong();
+
+        private AtomicLong skipped = new AtomicLong();
+
+        Operation(String name, int weight) {
+            this.name = name;
+            this.weight = weight;
+        }
+
+        void run(long intendedNanos) {
+            boolean executed;
+            try {
+                executed = execute(name);
+            } catch (RestClientException ex) {
+                errors.incrementAndGet();
+                executed = true;
+            }
+            if ( !executed ) {
+                skipped.incrementAndGet();
+                return;
+            }
+            long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedNanos);
+            histogram.recordValue( Math.min(latencyMicros, MAX_LATENCY_MICROS) );
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.flavio.libraryapi.loadtest;
+
+import com.flavio.libraryapi.LibraryApiApplication;
+import com.flavio.libraryapi.api.dto.BookDTO;
+import com.flavio.libraryapi.model.entity.Book;
+import com.flavio.libraryapi.model.repository.BookRepository;
+import com.flavio.libraryapi.service.isbn.Isbn;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mede o custo da gravação contínua do JFR: sobe a aplicação com library.jfr
+ * desligado e ligado, repete a mesma mistura de get e find em cada uma e grava
+ * vazão e percentis lado a lado em {@code jfr-overhead.csv}. Rodar com
+ * {@code mvn test -Ploadtest} numa JVM com jdk.jfr (JDK 11+ ou 8u262+).
+ */
+@Tag("loadtest")
+public class FlightRecorderOverheadLoadTest {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    int threads = Integer.getInteger("loadtest.threads", 32);
+
+    int requests = Integer.getInteger("loadtest.requests", 50000);
+
+    int warmUpRequests = Integer.getInteger("loadtest.warm-up", 10000);
+
+    int books = Integer.getInteger("loadtest.books", 10000);
+
+    File output = new File(System.getProperty("loadtest.output", "target/loadtest"));
+
+    @Test
+    @DisplayName("Deve medir a sobrecarga da gravação contínua do JFR.")
+    public void recordingOverheadTest() throws Exception {
+
+        // execucao
+        Histogram off = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        Histogram on = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        double offSeconds = run(false, off);
+        double onSeconds = run(true, on);
+
+        // verificacao
+        report(off, offSeconds, on, onSeconds);
+        assertThat( off.getTotalCount() ).isEqualTo(requests);
+        assertThat( on.getTotalCount() ).isEqualTo(requests);
+    }
+
+    private double run(boolean recording, Histogram histogram) throws InterruptedException {
+        try ( ConfigurableApplicationContext context = new SpringApplicationBuilder(LibraryApiApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "spring.devtools.restart.enabled=false")
+                .run("--library.jfr.enabled=" + recording) ) {
+            List<Long> ids = seed(context.getBean(BookRepository.class));
+            String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort()
+                    + "/api/books";
+            RestTemplate rest = new RestTemplate();
+
+            drive(rest, baseUrl, ids, warmUpRequests, null);
+            long start = System.nanoTime();
+            drive(rest, baseUrl, ids, requests, histogram);
+            double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+            context.getBean(BookRepository.class).deleteAllInBatch();
+            return elapsedSeconds;
+        }
+    }
+
+    private void drive(RestTemplate rest, String baseUrl, List<Long> ids, int total, Histogram histogram)
+            throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        for ( int i = 0; i < total; i++ ) {
+            boolean find = i % 4 == 0;
+            workers.execute( () -> {
+                long begin = System.nanoTime();
+                if ( find ) {
+                    rest.getForObject(baseUrl + "?title={title}&page=0&size=20", String.class,
+                            "Livro " + ThreadLocalRandom.current().nextInt(100));
+                } else {
+                    rest.getForObject(baseUrl + "/{id}", BookDTO.class,
+                            ids.get( ThreadLocalRandom.current().nextInt(ids.size()) ));
+                }
+                if ( histogram != null ) {
+                    long latencyMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - begin);
+                    histogram.recordValue( Math.min(latencyMicros, MAX_LATENCY_MICROS) );
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.MINUTES);
+    }
+
+    private List<Long> seed(BookRepository repository) {
+        List<Long> ids = new ArrayList<>();
+        List<Book> batch = new ArrayList<>();
+        for ( int i = 0; i < books; i++ ) {
+            String isbn = Isbn.withCheckDigit(978000000000l + i);
+            batch.add( Book.builder()
+                    .title("Livro " + i)
+                    .author("Autor " + (i % 200))
+                    .isbn(isbn)
+                    .isbnKey(Isbn.toKey(isbn))
+                    .build() );
+            if ( batch.size() == 1000 || i == books - 1 ) {
+                repository.saveAll(batch).forEach( book -> ids.add(book.getId()) );
+                batch.clear();
+            }
+        }
+        return ids;
+    }
+
+    private void report(Histogram off, double offSeconds, Histogram on, double onSeconds) throws IOException {
+        if ( !output.isDirectory() && !output.mkdirs() ) {
+            throw new IOException("Não foi possível criar " + output);
+        }
+        try ( PrintStream summary = new PrintStream(new File(output, "jfr-overhead.csv"), "UTF-8") ) {
+            summary.println("recording,requests,throughput,p50_ms,p99_ms,p999_ms,max_ms");
+            print(summary, "off", off, offSeconds);
+            print(summary, "on", on, onSeconds);
+        }
+    }
+
+    private static void print(PrintStream summary, String name, Histogram histogram, double elapsedSeconds) {
+        summary.printf("%s,%d,%.1f,%.3f,%.3f,%.3f,%.3f%n",
+                name,
+                histogram.getTotalCount(),
+                histogram.getTotalCount() / elapsedSeconds,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+    }
+}
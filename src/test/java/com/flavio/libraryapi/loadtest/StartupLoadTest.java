@@ -0,0 +1,166 @@
+package com.flavio.libraryapi.loadtest;
+
+import com.flavio.libraryapi.LibraryApiApplication;
+import com.flavio.libraryapi.api.dto.BookDTO;
+import com.flavio.libraryapi.service.isbn.Isbn;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mede a partida como o cliente vê: do lançamento da JVM até o primeiro
+ * GET /api/books/{id} respondido com sucesso. Cada rodada sobe a aplicação num
+ * processo novo sobre o mesmo banco H2 em arquivo, populado por uma rodada inicial.
+ *
+ * Rodar com {@code mvn test -Ploadtest -Dtest=StartupLoadTest}. Parâmetros:
+ * loadtest.startup.runs, loadtest.startup.jvm-args (ex.: -Dspring.profiles.active=startup
+ * ou -XX:SharedArchiveFile=...), loadtest.startup.classpath e loadtest.startup.directory
+ * (para comparar com o classpath de target/appcds, de onde o arquivo AppCDS foi treinado).
+ */
+@Tag("loadtest")
+public class StartupLoadTest {
+
+    private static final long MAX_STARTUP_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    RestTemplate rest = new RestTemplate();
+
+    @Test
+    @DisplayName("Deve medir o tempo até o primeiro GET de livro bem-sucedido.")
+    public void firstGetTest() throws Exception {
+
+        // cenario
+        int runs = Integer.getInteger("loadtest.startup.runs", 5);
+        String jvmArgs = System.getProperty("loadtest.startup.jvm-args", "");
+        String classpath = System.getProperty("loadtest.startup.classpath", System.getProperty("java.class.path"));
+        File directory = new File(System.getProperty("loadtest.startup.directory", "."));
+        File output = new File(System.getProperty("loadtest.output", "target/loadtest"));
+        if ( !output.isDirectory() && !output.mkdirs() ) {
+            throw new IOException("Não foi possível criar " + output);
+        }
+        File database = new File(Files.createTempDirectory("startup-loadtest").toFile(), "library");
+
+        Long id = seed(classpath, directory, database, output);
+
+        // execucao
+        Histogram histogram = new Histogram(MAX_STARTUP_MICROS, 3);
+        for ( int run = 0; run < runs; run++ ) {
+            int port = freePort();
+            long start = System.nanoTime();
+            Process process = launch(classpath, directory, jvmArgs, database, port, new File(output, "startup-" + run + ".log"));
+            try {
+                awaitBook(process, port, id);
+                histogram.recordValue( Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), MAX_STARTUP_MICROS) );
+            } finally {
+                stop(process);
+            }
+        }
+
+        // verificacao
+        assertThat( histogram.getTotalCount() ).isEqualTo(runs);
+        report(output, histogram, jvmArgs);
+    }
+
+    private Long seed(String classpath, File directory, File database, File output) throws Exception {
+        int port = freePort();
+        Process process = launch(classpath, directory, "", database, port, new File(output, "startup-seed.log"));
+        try {
+            String url = "http://localhost:" + port + "/api/books";
+            BookDTO book = BookDTO.builder().title("Partida").author("Autor").isbn(Isbn.withCheckDigit(979000000000l)).build();
+            long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(MAX_STARTUP_MICROS);
+            while ( true ) {
+                assertAlive(process, deadline);
+                try {
+                    return rest.postForObject(url, book, BookDTO.class).getId();
+                } catch (RestClientException ex) {
+                    Thread.sleep(100);
+                }
+            }
+        } finally {
+            stop(process);
+        }
+    }
+
+    private Process launch(String classpath, File directory, String jvmArgs, File database, int port, File log)
+            throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add( new File(System.getProperty("java.home"), "bin/java").getPath() );
+        if ( !jvmArgs.trim().isEmpty() ) {
+            command.addAll( Arrays.asList(jvmArgs.trim().split("\\s+")) );
+        }
+        command.add("-cp");
+        command.add(classpath);
+        command.add( LibraryApiApplication.class.getName() );
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=jdbc:h2:file:" + database.getAbsolutePath());
+        command.add("--spring.jpa.hibernate.ddl-auto=update");
+        return new ProcessBuilder(command)
+                .directory(directory)
+                .redirectErrorStream(true)
+                .redirectOutput(log)
+                .start();
+    }
+
+    private void awaitBook(Process process, int port, Long id) throws InterruptedException {
+        String url = "http://localhost:" + port + "/api/books/{id}";
+        long deadline = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(MAX_STARTUP_MICROS);
+        while ( true ) {
+            assertAlive(process, deadline);
+            try {
+                if ( rest.getForEntity(url, BookDTO.class, id).getStatusCode().is2xxSuccessful() ) {
+                    return;
+                }
+            } catch (RestClientException ex) {
+                // ainda subindo
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private void assertAlive(Process process, long deadline) {
+        assertThat( process.isAlive() ).as("processo da aplicação ativo").isTrue();
+        assertThat( System.nanoTime() ).as("tempo de partida").isLessThan(deadline);
+    }
+
+    private void stop(Process process) throws InterruptedException {
+        process.destroy();
+        if ( !process.waitFor(30, TimeUnit.SECONDS) ) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private int freePort() throws IOException {
+        try ( ServerSocket socket = new ServerSocket(0) ) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private void report(File output, Histogram histogram, String jvmArgs) throws IOException {
+        try ( PrintStream summary = new PrintStream(new File(output, "startup.csv"), "UTF-8") ) {
+            summary.println("jvm_args,runs,p50_ms,p90_ms,max_ms");
+            summary.printf("\"%s\",%d,%.1f,%.1f,%.1f%n",
+                    jvmArgs,
+                    histogram.getTotalCount(),
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(90) / 1000.0,
+                    histogram.getMaxValue() / 1000.0);
+        }
+        try ( PrintStream distribution = new PrintStream(new File(output, "startup.hgrm"), "UTF-8") ) {
+            histogram.outputPercentileDistribution(distribution, 1000.0);
+        }
+    }
+}
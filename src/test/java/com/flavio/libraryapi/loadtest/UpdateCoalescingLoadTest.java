@@ -0,0 +1,116 @@
+package com.flavio.libraryapi.loadtest;
+
+import com.flavio.libraryapi.model.entity.Book;
+import com.flavio.libraryapi.model.repository.BookRepository;
+import com.flavio.libraryapi.service.BookService;
+import com.flavio.libraryapi.service.impl.BookUpdateCoalescer;
+import com.flavio.libraryapi.service.isbn.Isbn;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mede quantos commits o coalescer faz para uma rajada de atualizações concorrentes
+ * num conjunto pequeno de livros quentes. Sem coalescer cada update é um save na sua
+ * própria transação, então a linha de base é um commit por atualização. Rodar com
+ * {@code mvn test -Ploadtest}; o resultado vai para {@code update-coalescing.csv}.
+ */
+@Tag("loadtest")
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = "library.update-coalescing.enabled=true")
+public class UpdateCoalescingLoadTest {
+
+    @Autowired
+    BookService service;
+
+    @Autowired
+    BookRepository repository;
+
+    @Autowired
+    BookUpdateCoalescer coalescer;
+
+    @Test
+    @DisplayName("Deve medir a redução de commits das atualizações coalescidas.")
+    public void commitRateTest() throws Exception {
+
+        // cenario
+        int threads = Integer.getInteger("loadtest.threads", 64);
+        int updatesPerThread = Integer.getInteger("loadtest.updates", 500);
+        int hotBooks = Integer.getInteger("loadtest.hot-books", 50);
+        File output = new File(System.getProperty("loadtest.output", "target/loadtest"));
+
+        List<Book> seeded = new ArrayList<>();
+        for ( int i = 0; i < hotBooks; i++ ) {
+            String isbn = Isbn.withCheckDigit(979500000000l + i);
+            seeded.add( Book.builder().title("Quente " + i).author("Autor").isbn(isbn).isbnKey(Isbn.toKey(isbn)).build() );
+        }
+        List<Book> books = repository.saveAll(seeded);
+        long submittedBefore = coalescer.getSubmitted();
+        long commitsBefore = coalescer.getCommits();
+        long rowsBefore = coalescer.getRowsWritten();
+
+        // execucao
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        for ( int t = 0; t < threads; t++ ) {
+            workers.execute( () -> {
+                for ( int i = 0; i < updatesPerThread; i++ ) {
+                    Book book = books.get( ThreadLocalRandom.current().nextInt(books.size()) );
+                    service.update( Book.builder()
+                            .id(book.getId())
+                            .title(book.getTitle() + " v" + i)
+                            .author(book.getAuthor())
+                            .isbn(book.getIsbn())
+                            .isbnKey(book.getIsbnKey())
+                            .build() );
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(5, TimeUnit.MINUTES);
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        long updates = coalescer.getSubmitted() - submittedBefore;
+        long commits = coalescer.getCommits() - commitsBefore;
+        long rows = coalescer.getRowsWritten() - rowsBefore;
+
+        // verificacao
+        report(output, updates, commits, rows, elapsedSeconds);
+        assertThat( updates ).isEqualTo( (long) threads * updatesPerThread );
+        assertThat( commits ).isLessThanOrEqualTo(updates);
+    }
+
+    private void report(File output, long updates, long commits, long rows, double elapsedSeconds) throws IOException {
+        if ( !output.isDirectory() && !output.mkdirs() ) {
+            throw new IOException("Não foi possível criar " + output);
+        }
+        try ( PrintStream summary = new PrintStream(new File(output, "update-coalescing.csv"), "UTF-8") ) {
+            summary.println("updates,commits,rows_written,updates_per_commit,baseline_commits,throughput");
+            summary.printf("%d,%d,%d,%.1f,%d,%.1f%n",
+                    updates,
+                    commits,
+                    rows,
+                    commits == 0 ? 0.0 : (double) updates / commits,
+                    updates,
+                    updates / elapsedSeconds);
+        }
+    }
+}
@@ -7,9 +7,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -17,6 +25,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("test")
 @DataJpaTest
+@Import(AuthorDictionary.class)
 public class BookRepositoryTest {
 
     @Autowired
@@ -30,12 +39,13 @@ public class BookRepositoryTest {
     public void returnTrueWhenIsbnExists() {
 
         // cenario
-        String isbn = "123";
-        Book book = createNewBook(isbn);
+        Long isbnKey = 9780306406157l;
+        Book book = createNewBook("978-0-306-40615-7");
+        book.setIsbnKey(isbnKey);
         entityManager.persist(book);
 
         // execucao
-        boolean exists = repository.existsByIsbn(isbn);
+        boolean exists = repository.existsByIsbnKey(isbnKey);
 
         // verificacao
         assertThat(exists).isTrue();
@@ -50,10 +60,10 @@ public class BookRepositoryTest {
     public void returnFalseWhenIsbnDoesntExists() {
 
         // cenario
-        String isbn = "123";
+        Long isbnKey = 9780306406157l;
 
         // execucao
-        boolean exists = repository.existsByIsbn(isbn);
+        boolean exists = repository.existsByIsbnKey(isbnKey);
 
         // verificacao
         assertThat(exists).isFalse();
@@ -109,4 +119,86 @@ public class BookRepositoryTest {
         assertThat( deleteBook ).isNull();
     }
 
+    @Test
+    @DisplayName("Deve deletar um livro pelo id.")
+    public void deleteBookByIdTest() {
+
+        // cenario
+        Book book = createNewBook("123");
+        entityManager.persist(book);
+        entityManager.flush();
+        entityManager.clear();
+
+        // execucao
+        int deleted = repository.deleteBookById(book.getId());
+
+        // verificacao
+        assertThat( deleted ).isEqualTo(1);
+        assertThat( entityManager.find( Book.class, book.getId() ) ).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve buscar livros selecionando apenas os campos pedidos.")
+    public void findProjectedTest() {
+
+        // cenario
+        entityManager.persist( createNewBook("123") );
+        entityManager.persist( Book.builder().author("Ciclano").title("Outro").isbn("456").build() );
+
+        Example<Book> example = Example.of( Book.builder().author("fulano").build(),
+                ExampleMatcher.matching().withIgnoreCase().withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING) );
+
+        // execucao
+        Page<Map<String, Object>> result = repository.findProjected(
+                BookSpecifications.byExample(example), PageRequest.of(0, 10),
+                Arrays.asList("id", "title") );
+
+        // verificacao
+        assertThat( result.getTotalElements() ).isEqualTo(1);
+        assertThat( result.getContent().get(0) ).containsOnlyKeys("id", "title");
+        assertThat( result.getContent().get(0).get("title") ).isEqualTo("Aventuras");
+    }
+
+    @Test
+    @DisplayName("Deve gravar o autor como referência ao dicionário e filtrar pelo nome do autor.")
+    public void authorDictionaryTest() {
+
+        // cenario
+        Book first = entityManager.persist( createNewBook("123") );
+        Book second = entityManager.persist( Book.builder().author("Fulano").title("Outras").isbn("789").build() );
+        entityManager.persist( Book.builder().author("Ciclano").title("Outro").isbn("456").build() );
+        entityManager.flush();
+        entityManager.clear();
+
+        // execucao
+        Example<Book> example = Example.of( Book.builder().author("fula").build(),
+                ExampleMatcher.matching().withIgnoreCase().withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING) );
+        Page<Book> result = repository.findAll( BookSpecifications.byExample(example), PageRequest.of(0, 10) );
+
+        // verificacao
+        assertThat( result.getContent() ).extracting(Book::getId).containsExactlyInAnyOrder(first.getId(), second.getId());
+        assertThat( result.getContent().get(0).getAuthor() ).isSameAs( result.getContent().get(1).getAuthor() );
+        assertThat( entityManager.getEntityManager()
+                .createQuery("select count(a) from Author a where a.name = 'Fulano'", Long.class)
+                .getSingleResult() ).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve ordenar por autor pelo nome e não pelo id do dicionário.")
+    public void sortByAuthorNameTest() {
+
+        // cenario
+        entityManager.persist( Book.builder().author("Zeca").title("Primeiro").isbn("123").build() );
+        entityManager.persist( Book.builder().author("Ana").title("Segundo").isbn("456").build() );
+        entityManager.flush();
+        entityManager.clear();
+
+        // execucao
+        Page<Book> result = repository.findAll( BookSpecifications.byExample( Example.of(new Book()) ),
+                BookSpecifications.sortingAuthorByName( PageRequest.of(0, 10, Sort.by("author")) ) );
+
+        // verificacao
+        assertThat( result.getContent() ).extracting(Book::getAuthor).containsExactly("Ana", "Zeca");
+    }
+
 }
@@ -0,0 +1,40 @@
+package com.flavio.libraryapi.model.repository;
+
+import com.flavio.libraryapi.model.entity.Book;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.Pageable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JpaBookCatalogScanTest {
+
+    @Test
+    @DisplayName("Deve percorrer a tabela por keyset no id.")
+    public void forEachByKeysetTest() {
+
+        // cenario
+        BookRepository repository = Mockito.mock(BookRepository.class);
+        List<Object[]> firstPage = new ArrayList<>();
+        for ( long id = 1; id <= 1000; id++ ) {
+            firstPage.add( new Object[] { id, "Livro " + id, "Fulano" } );
+        }
+        Mockito.when( repository.findTermsAfter(Mockito.eq(0l), Mockito.any(Pageable.class)) ).thenReturn(firstPage);
+        Mockito.when( repository.findTermsAfter(Mockito.eq(1000l), Mockito.any(Pageable.class)) )
+                .thenReturn( Arrays.<Object[]>asList( new Object[] { 1001l, "As aventuras", "Artur" } ) );
+
+        // execucao
+        List<Book> books = new ArrayList<>();
+        new JpaBookCatalogScan(repository).forEach(books::add);
+
+        // verificacao
+        assertThat( books ).hasSize(1001);
+        assertThat( books.get(1000).getAuthor() ).isEqualTo("Artur");
+        Mockito.verify(repository, Mockito.times(2)).findTermsAfter(Mockito.anyLong(), Mockito.any(Pageable.class));
+    }
+}
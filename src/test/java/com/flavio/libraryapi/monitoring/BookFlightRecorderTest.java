@@ -0,0 +1,61 @@
+package com.flavio.libraryapi.monitoring;
+
+import com.flavio.libraryapi.model.entity.Book;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageImpl;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookFlightRecorderTest {
+
+    @Test
+    @DisplayName("Deve registrar um evento de serviço com operação, filtro e quantidade de linhas.")
+    public void serviceCallEventTest() throws Throwable {
+
+        // cenario
+        ProceedingJoinPoint call = Mockito.mock(ProceedingJoinPoint.class);
+        Signature signature = Mockito.mock(Signature.class);
+        Mockito.when( signature.getName() ).thenReturn("find");
+        Mockito.when( call.getSignature() ).thenReturn(signature);
+        Mockito.when( call.getArgs() ).thenReturn( new Object[] { Book.builder().title("aventuras").build() } );
+        Mockito.when( call.proceed() ).thenReturn( new PageImpl<>(Arrays.asList(new Book(), new Book())) );
+
+        Path file = Files.createTempFile("book-flight-recorder", ".jfr");
+        List<RecordedEvent> events;
+
+        // execucao
+        try ( Recording recording = new Recording() ) {
+            recording.enable(ServiceCallEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+            new BookFlightRecorder().service(call);
+            recording.stop();
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file).stream()
+                    .filter( event -> event.getEventType().getName().equals("com.flavio.libraryapi.ServiceCall") )
+                    .collect(Collectors.toList());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        // verificacao
+        assertThat( events ).hasSize(1);
+        assertThat( events.get(0).getString("operation") ).isEqualTo("find");
+        assertThat( events.get(0).getString("filter") ).isEqualTo("title");
+        assertThat( events.get(0).getLong("rows") ).isEqualTo(2);
+        assertThat( events.get(0).getBoolean("failed") ).isFalse();
+    }
+}
@@ -1,9 +1,13 @@
 package com.flavio.libraryapi.service;
 
+import com.flavio.libraryapi.config.datasource.ReadYourWritesTracker;
 import com.flavio.libraryapi.exception.BusinessException;
 import com.flavio.libraryapi.model.entity.Book;
 import com.flavio.libraryapi.model.repository.BookRepository;
+import com.flavio.libraryapi.service.event.BookEvent;
 import com.flavio.libraryapi.service.impl.BookServiceImpl;
+import com.flavio.libraryapi.service.impl.BookUpdateCoalescer;
+import com.flavio.libraryapi.service.impl.MissingBookCache;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -11,16 +15,20 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mockito;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.domain.Example;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.LongStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -43,12 +51,12 @@ public class BookServiceTest {
     public void saveBookTest() {
         // cenario
         Book book = createValidBook();
-        Mockito.when( repository.existsByIsbn(Mockito.anyString()) ).thenReturn(false);
+        Mockito.when( repository.existsByIsbnKey(Mockito.anyLong()) ).thenReturn(false);
         Mockito.when( repository.save(book) ).thenReturn(
                 Book.builder().id(1l)
                         .author("Fulano")
                         .title("As aventuras 2")
-                        .isbn("123")
+                        .isbn("9780306406157")
                         .build()
                     );
 
@@ -59,7 +67,8 @@ public class BookServiceTest {
         assertThat(savedBook.getId()).isNotNull();
         assertThat(savedBook.getAuthor()).isEqualTo("Fulano");
         assertThat(savedBook.getTitle()).isEqualTo("As aventuras 2");
-        assertThat(savedBook.getIsbn()).isEqualTo("123");
+        assertThat(savedBook.getIsbn()).isEqualTo("9780306406157");
+        assertThat(book.getIsbnKey()).isEqualTo(9780306406157l);
     }
 
     @Test
@@ -68,7 +77,7 @@ public class BookServiceTest {
 		
         // cenário
         Book book = createValidBook();
-        Mockito.when( repository.existsByIsbn(Mockito.anyString()) ).thenReturn(true);
+        Mockito.when( repository.existsByIsbnKey(Mockito.anyLong()) ).thenReturn(true);
 
         // execucao
         Throwable exception = Assertions.catchThrowable(() -> service.save(book));
@@ -81,8 +90,61 @@ public class BookServiceTest {
         Mockito.verify(repository, Mockito.never()).save(book);
     }
 
+    @Test
+    @DisplayName("Deve lançar erro de negócio quando o índice único recusar um isbn cadastrado ao mesmo tempo.")
+    public void shouldNotSaveABookWithConcurrentDuplicatedISBN() {
+
+        // cenário
+        Book book = createValidBook();
+        Mockito.when( repository.existsByIsbnKey(Mockito.anyLong()) ).thenReturn(false);
+        Mockito.when( repository.save(book) ).thenThrow( new DataIntegrityViolationException("idx_book_isbn_key") );
+
+        // execucao
+        Throwable exception = Assertions.catchThrowable(() -> service.save(book));
+
+        // verificacoes
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Isbn já cadastrado.");
+    }
+
+    @Test
+    @DisplayName("Deve lançar erro de negócio ao tentar salvar um livro com isbn inválido.")
+    public void shouldNotSaveABookWithInvalidISBN() {
+
+        // cenário
+        Book book = createValidBook();
+        book.setIsbn("978-0-306-40615-8");
+
+        // execucao
+        Throwable exception = Assertions.catchThrowable(() -> service.save(book));
+
+        // verificacoes
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Isbn inválido.");
+
+        Mockito.verify(repository, Mockito.never()).save(book);
+    }
+
+    @Test
+    @DisplayName("Deve obter um livro pelo isbn informado em qualquer formato.")
+    public void getByIsbnTest() {
+
+        // cenário
+        Book book = createValidBook();
+        book.setId(1l);
+        Mockito.when( repository.findByIsbnKey(9780306406157l) ).thenReturn( Optional.of(book) );
+
+        // execucao
+        Optional<Book> foundBook = service.getByIsbn("0-306-40615-2");
+
+        // verificacoes
+        assertThat( foundBook ).contains( book );
+    }
+
     private Book createValidBook() {
-        return Book.builder().author("Fulano").title("As aventuras 2").isbn("123").build();
+        return Book.builder().author("Fulano").title("As aventuras 2").isbn("9780306406157").build();
     }
 
     @Test
@@ -122,6 +184,62 @@ public class BookServiceTest {
         assertThat( book.isPresent() ).isFalse();
     }
 
+    @Test
+    @DisplayName("Não deve consultar a base novamente por um id recém consultado e inexistente.")
+    public void missingBookIsCachedTest() {
+
+        // cenário
+        Long id = 1l;
+        BookService cachedService = new BookServiceImpl( repository, null, null,
+                new MissingBookCache(60000, 100), null, null, null, null );
+        Mockito.when( repository.findById(id) ).thenReturn( Optional.empty() );
+
+        // execucao
+        cachedService.getById(id);
+        Optional<Book> book = cachedService.getById(id);
+
+        // verificacoes
+        assertThat( book.isPresent() ).isFalse();
+        Mockito.verify(repository, Mockito.times(1)).findById(id);
+    }
+
+    @Test
+    @DisplayName("Não deve lembrar como inexistente um id salvo durante a consulta.")
+    public void missingBookSavedDuringLookupTest() {
+
+        // cenário
+        Long id = 1l;
+        MissingBookCache missingBooks = new MissingBookCache(60000, 100);
+        BookService cachedService = new BookServiceImpl( repository, null, null,
+                missingBooks, null, null, null, null );
+        Mockito.when( repository.findById(id) ).thenAnswer( invocation -> {
+            missingBooks.onBookEvent( BookEvent.saved(Book.builder().id(id).build()) );
+            return Optional.empty();
+        });
+
+        // execucao
+        cachedService.getById(id);
+
+        // verificacoes
+        assertThat( missingBooks.isMissing(id) ).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve descartar uma única entrada quando o cache de inexistentes enche.")
+    public void missingBookEvictsOneTest() {
+
+        // cenário
+        MissingBookCache missingBooks = new MissingBookCache(60000, 3);
+        for ( long id = 1; id <= 4; id++ ) {
+            missingBooks.markMissing(id, missingBooks.generation(id));
+        }
+
+        // verificacoes
+        long remembered = LongStream.rangeClosed(1, 4).filter(missingBooks::isMissing).count();
+        assertThat( remembered ).isEqualTo(3);
+        assertThat( missingBooks.isMissing(4l) ).isTrue();
+    }
+
     @Test
     @DisplayName("Deve excluir um book.")
     public void deleteBookTest() {
@@ -136,6 +254,67 @@ public class BookServiceTest {
         Mockito.verify(repository, Mockito.times(1)).delete(book);
     }
 
+    @Test
+    @DisplayName("Deve excluir um livro pelo id com um único comando.")
+    public void deleteBookByIdTest() {
+
+        // cenário
+        Mockito.when( repository.deleteBookById(1l) ).thenReturn(1);
+
+        // execucao
+        boolean deleted = service.deleteById(1l);
+
+        // verificacoes
+        assertThat( deleted ).isTrue();
+        Mockito.verify(repository, Mockito.never()).findById(Mockito.anyLong());
+        Mockito.verify(repository, Mockito.never()).delete(Mockito.any(Book.class));
+    }
+
+    @Test
+    @DisplayName("Deve informar quando não houver livro para excluir pelo id.")
+    public void deleteInexistentBookByIdTest() {
+
+        // cenário
+        Mockito.when( repository.deleteBookById(1l) ).thenReturn(0);
+
+        // execucao
+        boolean deleted = service.deleteById(1l);
+
+        // verificacoes
+        assertThat( deleted ).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve excluir em lotes os livros informados.")
+    public void deleteBooksByIdsTest() {
+
+        // cenário
+        List<Long> ids = new ArrayList<>();
+        for ( long id = 1; id <= 2500; id++ ) {
+            ids.add(id);
+        }
+        Mockito.when( repository.deleteBooksByIds(Mockito.anyCollection()) ).thenReturn(1000, 1000, 500);
+
+        // execucao
+        long deleted = service.deleteByIds(ids);
+
+        // verificacoes
+        assertThat( deleted ).isEqualTo(2500);
+        Mockito.verify(repository, Mockito.times(3)).deleteBooksByIds(Mockito.anyCollection());
+    }
+
+    @Test
+    @DisplayName("Deve lançar erro de negócio ao excluir em lote sem nenhum filtro.")
+    public void deleteBooksWithoutFilterTest() {
+
+        // execucao
+        Throwable exception = Assertions.catchThrowable(() -> service.deleteByFilter(new Book()));
+
+        // verificacoes
+        assertThat(exception).isInstanceOf(BusinessException.class);
+        Mockito.verify(repository, Mockito.never()).deleteBooksByIds(Mockito.anyCollection());
+    }
+
     @Test
     @DisplayName("Deve ocorrer erro ao tentar deletar um livro inexistente.")
     public void deleteInvalidBookTest() {
@@ -190,6 +369,45 @@ public class BookServiceTest {
         assertThat( book.getIsbn()).isEqualTo( updateBook.getIsbn() );
     }
 
+    @Test
+    @DisplayName("Deve publicar a atualização coalescida só depois do commit e em nome de quem chamou.")
+    public void updateAsyncPublishesAfterCommitTest() {
+
+        // cenario
+        Book book = createValidBook();
+        book.setId(1l);
+        CompletableFuture<Book> commit = new CompletableFuture<>();
+        BookUpdateCoalescer coalescer = Mockito.mock(BookUpdateCoalescer.class);
+        Mockito.when( coalescer.isEnabled() ).thenReturn(true);
+        Mockito.when( coalescer.getAcknowledgement() ).thenReturn( BookUpdateCoalescer.Acknowledgement.COMMITTED );
+        Mockito.when( coalescer.submit(book) ).thenReturn(commit);
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(60000);
+        List<Object> published = new ArrayList<>();
+        BookService coalescingService = new BookServiceImpl( repository, null, null, null,
+                coalescer, null, tracker, event -> {
+                    published.add(event);
+                    tracker.onBookEvent((BookEvent) event);
+                } );
+
+        List<Long> tokens = new ArrayList<>();
+
+        // execucao
+        tracker.bind(null, tokens::add);
+        CompletableFuture<Book> update = coalescingService.updateAsync(book);
+        tracker.unbind();
+        boolean publishedBeforeCommit = !published.isEmpty();
+        commit.complete(book);
+
+        // verificacao
+        assertThat( publishedBeforeCommit ).isFalse();
+        assertThat( update.join() ).isSameAs(book);
+        assertThat( published ).hasSize(1);
+        assertThat( tokens ).hasSize(1);
+        tracker.bind(tokens.get(0), wroteAt -> {});
+        assertThat( tracker.mustReadFromPrimary() ).isTrue();
+        tracker.unbind();
+    }
+
     @Test
     @DisplayName("Deve filtrar livros pelas propriedades.")
     public void findBookTest() {
@@ -201,7 +419,7 @@ public class BookServiceTest {
 
         List<Book> lista = Arrays.asList(book);
         Page<Book> page = new PageImpl<Book>(lista, pageRequest, 1);
-        Mockito.when( repository.findAll(Mockito.any(Example.class),
+        Mockito.when( repository.findAll(Mockito.<Specification<Book>>any(),
                 Mockito.any(PageRequest.class)))
                 .thenReturn(page);
 
@@ -0,0 +1,123 @@
+package com.flavio.libraryapi.service;
+
+import com.flavio.libraryapi.exception.BookNotFoundException;
+import com.flavio.libraryapi.model.entity.Book;
+import com.flavio.libraryapi.model.repository.AuthorDictionary;
+import com.flavio.libraryapi.service.impl.BookUpdateCoalescer;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookUpdateCoalescerTest {
+
+    JdbcTemplate jdbcTemplate;
+
+    BookUpdateCoalescer coalescer;
+
+    @BeforeEach
+    public void setUp() {
+        this.jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        AuthorDictionary authors = Mockito.mock(AuthorDictionary.class);
+        Mockito.when( authors.idOf("Fulano") ).thenReturn(7);
+        this.coalescer = new BookUpdateCoalescer( jdbcTemplate, authors, Mockito.mock(PlatformTransactionManager.class),
+                true, 60000, 500, BookUpdateCoalescer.Acknowledgement.COMMITTED );
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.coalescer.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve gravar apenas a última atualização de cada livro num único batch.")
+    @SuppressWarnings("unchecked")
+    public void coalesceUpdatesTest() {
+
+        // cenario
+        Mockito.when( jdbcTemplate.batchUpdate( Mockito.anyString(), Mockito.anyList() ) ).thenReturn( new int[] { 1, 1 } );
+        CompletableFuture<Book> first = coalescer.submit( createBook(1l, "A") );
+        CompletableFuture<Book> second = coalescer.submit( createBook(1l, "B") );
+        CompletableFuture<Book> last = coalescer.submit( createBook(1l, "C") );
+        CompletableFuture<Book> other = coalescer.submit( createBook(2l, "X") );
+
+        // execucao
+        coalescer.flushAll();
+
+        // verificacoes
+        ArgumentCaptor<List> rows = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(jdbcTemplate, Mockito.times(1)).batchUpdate( Mockito.anyString(), rows.capture() );
+        List<Object[]> batch = rows.getValue();
+        assertThat( batch ).hasSize(2);
+        assertThat( batch ).anySatisfy( row -> assertThat(row).containsExactly("C", 7, "123", 1l) );
+
+        assertThat( first.join().getTitle() ).isEqualTo("C");
+        assertThat( second.join().getTitle() ).isEqualTo("C");
+        assertThat( last.join().getTitle() ).isEqualTo("C");
+        assertThat( other.join().getTitle() ).isEqualTo("X");
+        assertThat( coalescer.getSubmitted() ).isEqualTo(4);
+        assertThat( coalescer.getCommits() ).isEqualTo(1);
+        assertThat( coalescer.getRowsWritten() ).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve completar com livro não encontrado a atualização de um id excluído antes do flush.")
+    public void deletedBeforeFlushTest() {
+
+        // cenario
+        Mockito.when( jdbcTemplate.batchUpdate( Mockito.anyString(), Mockito.anyList() ) ).thenReturn( new int[] { 1, 0 } );
+        CompletableFuture<Book> existing = coalescer.submit( createBook(1l, "A") );
+        CompletableFuture<Book> deleted = coalescer.submit( createBook(2l, "B") );
+
+        // execucao
+        coalescer.flushAll();
+
+        // verificacoes
+        assertThat( existing.join().getTitle() ).isEqualTo("A");
+        assertThat( deleted ).isCompletedExceptionally();
+        assertThat( Assertions.catchThrowable(deleted::join) ).hasCause(BookNotFoundException.INSTANCE);
+        assertThat( coalescer.getRowsWritten() ).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve regravar uma a uma as linhas quando o batch falhar, isolando a linha inválida.")
+    public void failedBatchTest() {
+
+        // cenario
+        Mockito.when( jdbcTemplate.batchUpdate( Mockito.anyString(), Mockito.anyList() ) )
+                .thenThrow( new IllegalStateException("falha") );
+        Mockito.when( jdbcTemplate.update( Mockito.anyString(), Mockito.<Object>any() ) ).thenAnswer( invocation -> {
+            Object id = invocation.getArguments()[4];
+            if ( Long.valueOf(1l).equals(id) ) {
+                throw new DataIntegrityViolationException("falha");
+            }
+            return Long.valueOf(2l).equals(id) ? 1 : 0;
+        });
+        CompletableFuture<Book> invalid = coalescer.submit( createBook(1l, "A") );
+        CompletableFuture<Book> valid = coalescer.submit( createBook(2l, "B") );
+        CompletableFuture<Book> missing = coalescer.submit( createBook(3l, "C") );
+
+        // execucao
+        coalescer.flushAll();
+
+        // verificacoes
+        assertThat( invalid ).isCompletedExceptionally();
+        assertThat( valid.join().getTitle() ).isEqualTo("B");
+        assertThat( Assertions.catchThrowable(missing::join) ).hasCause(BookNotFoundException.INSTANCE);
+    }
+
+    private Book createBook(Long id, String title) {
+        return Book.builder().id(id).author("Fulano").title(title).isbn("123").build();
+    }
+}
@@ -0,0 +1,200 @@
+package com.flavio.libraryapi.service;
+
+import com.flavio.libraryapi.config.datasource.ReadYourWritesTracker;
+import com.flavio.libraryapi.exception.BusinessException;
+import com.flavio.libraryapi.model.entity.Book;
+import com.flavio.libraryapi.model.repository.BookRepository;
+import com.flavio.libraryapi.service.impl.ParallelBookSearch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class ParallelBookSearchTest {
+
+    ParallelBookSearch search;
+
+    ReadYourWritesTracker tracker;
+
+    @MockBean
+    BookRepository repository;
+
+    @MockBean
+    PlatformTransactionManager transactionManager;
+
+    @Captor
+    ArgumentCaptor<Specification<Book>> shardFilter;
+
+    @Captor
+    ArgumentCaptor<Pageable> shardRequest;
+
+    @Captor
+    ArgumentCaptor<TransactionDefinition> shardTransaction;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        this.tracker = new ReadYourWritesTracker(60000);
+        this.search = new ParallelBookSearch( repository, transactionManager, tracker, true, 2, 10000 );
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.search.shutdown();
+        this.tracker.unbind();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    @DisplayName("Deve juntar as faixas respeitando a ordenação e a paginação.")
+    public void mergeShardsTest() {
+
+        // cenario
+        PageRequest pageRequest = PageRequest.of(0, 3, Sort.by("title"));
+        Mockito.when( repository.findMinId() ).thenReturn(1l);
+        Mockito.when( repository.findMaxId() ).thenReturn(4l);
+        Mockito.when( repository.findAll(Mockito.<Specification<Book>>any(), Mockito.any(Pageable.class)) )
+                .thenReturn( new PageImpl<>( Arrays.asList(createBook(1l, "A"), createBook(3l, "C")), pageRequest, 2 ) )
+                .thenReturn( new PageImpl<>( Arrays.asList(createBook(2l, "B"), createBook(4l, "D")), pageRequest, 2 ) );
+
+        // execucao
+        Page<Book> result = search.find( Example.of(new Book()), pageRequest );
+
+        // verificacoes
+        assertThat( result.getTotalElements() ).isEqualTo(4);
+        assertThat( result.getContent().stream().map(Book::getTitle).collect(Collectors.toList()) )
+                .containsExactly("A", "B", "C");
+        Mockito.verify(repository, Mockito.times(2)).findAll(shardFilter.capture(), shardRequest.capture());
+        assertThat( shardFilter.getAllValues() ).doesNotContainNull();
+        assertThat( shardRequest.getValue().getPageSize() ).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Deve ordenar as faixas pelo nome do autor, o mesmo critério do merge.")
+    public void sortByAuthorNameTest() {
+
+        // cenario
+        PageRequest pageRequest = PageRequest.of(0, 3, Sort.by("author"));
+        Mockito.when( repository.findMinId() ).thenReturn(1l);
+        Mockito.when( repository.findMaxId() ).thenReturn(4l);
+        Mockito.when( repository.findAll(Mockito.<Specification<Book>>any(), Mockito.any(Pageable.class)) )
+                .thenReturn( new PageImpl<>( Arrays.asList(createBook(3l, "Ana", "C"), createBook(1l, "Zeca", "A")), pageRequest, 2 ) )
+                .thenReturn( new PageImpl<>( Arrays.asList(createBook(2l, "Bia", "B"), createBook(4l, "Caio", "D")), pageRequest, 2 ) );
+
+        // execucao
+        Page<Book> result = search.find( Example.of(new Book()), pageRequest );
+
+        // verificacoes
+        assertThat( result.getContent().stream().map(Book::getAuthor).collect(Collectors.toList()) )
+                .containsExactly("Ana", "Bia", "Caio");
+        Mockito.verify(repository, Mockito.times(2)).findAll(shardFilter.capture(), shardRequest.capture());
+        assertThat( shardRequest.getValue().getSort().getOrderFor("authorRef.name") ).isNotNull();
+        assertThat( shardRequest.getValue().getSort().getOrderFor("author") ).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve retornar página vazia quando não houver livros.")
+    public void emptyCatalogueTest() {
+
+        // cenario
+        Mockito.when( repository.findMinId() ).thenReturn(null);
+
+        // execucao
+        Page<Book> result = search.find( Example.of(new Book()), PageRequest.of(0, 10) );
+
+        // verificacoes
+        assertThat( result.getTotalElements() ).isEqualTo(0);
+        Mockito.verify(repository, Mockito.never())
+                .findAll(Mockito.<Specification<Book>>any(), Mockito.any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Deve levar às faixas a requisição do cliente e o read-only da transação de quem chamou.")
+    public void propagatesCallerContextTest() {
+
+        // cenario
+        PageRequest pageRequest = PageRequest.of(0, 3);
+        Mockito.when( repository.findMinId() ).thenReturn(1l);
+        Mockito.when( repository.findMaxId() ).thenReturn(4l);
+        List<Boolean> readsFromPrimary = new CopyOnWriteArrayList<>();
+        Mockito.when( repository.findAll(Mockito.<Specification<Book>>any(), Mockito.any(Pageable.class)) )
+                .thenAnswer( invocation -> {
+                    readsFromPrimary.add( tracker.mustReadFromPrimary() );
+                    return new PageImpl<Book>( Arrays.asList(createBook(1l, "A")), pageRequest, 1 );
+                });
+        tracker.bind( System.currentTimeMillis(), wroteAt -> {} );
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        // execucao
+        search.find( Example.of(new Book()), pageRequest );
+
+        // verificacoes
+        assertThat( readsFromPrimary ).containsExactly(true, true);
+        Mockito.verify(transactionManager, Mockito.times(2)).getTransaction(shardTransaction.capture());
+        assertThat( shardTransaction.getAllValues() ).allMatch(TransactionDefinition::isReadOnly);
+    }
+
+    @Test
+    @DisplayName("Deve recusar ordenação por propriedade desconhecida.")
+    public void unknownSortTest() {
+
+        // cenario
+        Mockito.when( repository.findMinId() ).thenReturn(1l);
+        Mockito.when( repository.findMaxId() ).thenReturn(4l);
+
+        // execucao / verificacao
+        assertThatThrownBy( () -> search.find( Example.of(new Book()), PageRequest.of(0, 3, Sort.by("editora")) ) )
+                .isInstanceOf(BusinessException.class);
+        Mockito.verify(repository, Mockito.never())
+                .findAll(Mockito.<Specification<Book>>any(), Mockito.any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Deve validar as faixas só quando a busca paralela estiver ligada.")
+    public void shardsValidationTest() {
+
+        // execucao / verificacao
+        ParallelBookSearch disabled = new ParallelBookSearch( repository, transactionManager, null, false, 0, 10000 );
+        assertThat( disabled.supports(PageRequest.of(0, 10)) ).isFalse();
+        disabled.shutdown();
+
+        assertThatThrownBy( () -> new ParallelBookSearch( repository, transactionManager, null, true, 0, 10000 ) )
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Book createBook(Long id, String title) {
+        return createBook(id, "Fulano", title);
+    }
+
+    private Book createBook(Long id, String author, String title) {
+        return Book.builder().id(id).author(author).title(title).isbn("123").build();
+    }
+}
@@ -0,0 +1,202 @@
+package com.flavio.libraryapi.service;
+
+import com.flavio.libraryapi.exception.BookNotFoundException;
+import com.flavio.libraryapi.exception.BusinessException;
+import com.flavio.libraryapi.model.entity.Book;
+import com.flavio.libraryapi.model.id.SnowflakeIdGenerator;
+import com.flavio.libraryapi.model.repository.IsbnRouteRepository;
+import com.flavio.libraryapi.model.repository.ShardedBookRepository;
+import com.flavio.libraryapi.service.impl.ShardedBookService;
+import com.flavio.libraryapi.service.isbn.Isbn;
+import com.flavio.libraryapi.service.suggest.BookSuggestIndex;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+
+public class ShardedBookServiceTest {
+
+    List<DataSource> shards = new ArrayList<>();
+
+    DataSource routes;
+
+    ShardedBookRepository repository;
+
+    ShardedBookService service;
+
+    @BeforeEach
+    public void setUp() {
+        ResourceDatabasePopulator schema = new ResourceDatabasePopulator( new ClassPathResource("schema-sharding.sql") );
+        for ( int i = 0; i < 3; i++ ) {
+            DataSource shard = new DriverManagerDataSource("jdbc:h2:mem:shard-test-" + i + ";DB_CLOSE_DELAY=-1", "sa", "");
+            schema.execute(shard);
+            shards.add(shard);
+        }
+        this.routes = new DriverManagerDataSource("jdbc:h2:mem:shard-test-routes;DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator( new ClassPathResource("schema-sharding-routes.sql") ).execute(routes);
+        this.repository = new ShardedBookRepository(shards);
+        this.service = createNode(1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.service.shutdown();
+        shards.forEach( shard -> new JdbcTemplate(shard).execute("delete from book") );
+        new JdbcTemplate(routes).execute("delete from book_isbn_route");
+    }
+
+    @Test
+    @DisplayName("Deve salvar e obter um livro pelo id no shard correto.")
+    public void saveAndGetByIdTest() {
+
+        // execucao
+        Book saved = service.save( createBook("Aventuras", "9780306406157") );
+        Optional<Book> found = service.getById(saved.getId());
+
+        // verificacao
+        assertThat( found.isPresent() ).isTrue();
+        assertThat( found.get().getTitle() ).isEqualTo("Aventuras");
+        assertThat( found.get().getIsbnKey() ).isEqualTo(9780306406157l);
+    }
+
+    @Test
+    @DisplayName("Deve lançar erro de negócio para isbn duplicado em qualquer shard.")
+    public void duplicatedIsbnTest() {
+
+        // cenario
+        service.save( createBook("Aventuras", "9780306406157") );
+
+        // execucao
+        Throwable exception = Assertions.catchThrowable( () -> service.save( createBook("Outro", "0-306-40615-2") ) );
+
+        // verificacao
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Isbn já cadastrado.");
+    }
+
+    @Test
+    @DisplayName("Deve juntar o resultado de todos os shards respeitando ordenação e paginação.")
+    public void findAcrossShardsTest() {
+
+        // cenario
+        for ( int i = 0; i < 10; i++ ) {
+            service.save( createBook("Livro " + i, Isbn.withCheckDigit(978000000000l + i)) );
+        }
+        service.save( createBook("Outro", Isbn.withCheckDigit(978000000099l)) );
+
+        // execucao
+        Page<Book> result = service.find( Book.builder().title("livro").build(),
+                PageRequest.of(1, 3, Sort.by(Sort.Direction.DESC, "title")) );
+
+        // verificacao
+        assertThat( result.getTotalElements() ).isEqualTo(10);
+        assertThat( result.getContent().stream().map(Book::getTitle).collect(Collectors.toList()) )
+                .containsExactly("Livro 6", "Livro 5", "Livro 4");
+    }
+
+    @Test
+    @DisplayName("Deve recusar páginas além da janela máxima de busca.")
+    public void findBeyondWindowTest() {
+
+        // execucao
+        Throwable exception = Assertions.catchThrowable( () ->
+                service.find( new Book(), PageRequest.of(1000000, 1000) ) );
+
+        // verificacao
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Página fora da janela de busca permitida.");
+    }
+
+    @Test
+    @DisplayName("Deve lançar livro não encontrado ao atualizar um id inexistente.")
+    public void updateMissingBookTest() {
+
+        // execucao
+        Throwable exception = Assertions.catchThrowable( () ->
+                service.update( Book.builder().id(42l).title("Fantasma").author("Fulano").build() ) );
+
+        // verificacao
+        assertThat(exception).isSameAs(BookNotFoundException.INSTANCE);
+        assertThat( service.getById(42l).isPresent() ).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve excluir um livro e liberar o isbn.")
+    public void deleteTest() {
+
+        // cenario
+        Book saved = service.save( createBook("Aventuras", "9780306406157") );
+
+        // execucao
+        service.delete(saved);
+
+        // verificacao
+        assertThat( service.getById(saved.getId()).isPresent() ).isFalse();
+        assertDoesNotThrow( () -> service.save( createBook("Aventuras", "9780306406157") ) );
+    }
+
+    @Test
+    @DisplayName("Deve garantir a unicidade do isbn entre nós que compartilham o índice.")
+    public void duplicatedIsbnAcrossNodesTest() {
+
+        // cenario
+        ShardedBookService otherNode = createNode(2);
+        service.save( createBook("Aventuras", "9780306406157") );
+
+        // execucao
+        Throwable exception = Assertions.catchThrowable( () -> otherNode.save( createBook("Outro", "9780306406157") ) );
+        otherNode.shutdown();
+
+        // verificacao
+        assertThat(exception)
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Isbn já cadastrado.");
+        assertThat( otherNode.getByIsbn("9780306406157").map(Book::getTitle) ).contains("Aventuras");
+    }
+
+    @Test
+    @DisplayName("Deve reconstruir o suggest a partir dos shards.")
+    public void suggestFromShardsTest() {
+
+        // cenario
+        for ( int i = 0; i < 5; i++ ) {
+            service.save( createBook("Aventuras " + i, Isbn.withCheckDigit(978000000000l + i)) );
+        }
+        BookSuggestIndex suggestIndex = new BookSuggestIndex(repository::forEachBook, 10);
+
+        // execucao
+        suggestIndex.rebuild();
+
+        // verificacao
+        assertThat( suggestIndex.suggest("avent", 10) ).hasSize(5);
+        assertThat( suggestIndex.suggest("fula", 10) ).containsExactly("Fulano");
+    }
+
+    private ShardedBookService createNode(long nodeId) {
+        return new ShardedBookService( repository, new IsbnRouteRepository(routes),
+                new SnowflakeIdGenerator(nodeId), null, null, 100 );
+    }
+
+    private Book createBook(String title, String isbn) {
+        return Book.builder().author("Fulano").title(title).isbn(isbn).build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.flavio.libraryapi.service.isbn;
+
+import com.flavio.libraryapi.exception.BusinessException;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IsbnTest {
+
+    @Test
+    @DisplayName("Deve converter ISBN-10 e ISBN-13 para a mesma chave numérica.")
+    public void toKeyTest() {
+
+        // execucao
+        long fromIsbn13 = Isbn.toKey("978-0-306-40615-7");
+        long fromIsbn10 = Isbn.toKey("0 306 40615 2");
+
+        // verificacao
+        assertThat( fromIsbn13 ).isEqualTo(9780306406157l);
+        assertThat( fromIsbn10 ).isEqualTo(fromIsbn13);
+        assertThat( Isbn.toKey("080442957X") ).isEqualTo(9780804429573l);
+        assertThat( Isbn.format(fromIsbn13) ).isEqualTo("9780306406157");
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar isbn com dígito verificador ou tamanho inválido.")
+    public void invalidIsbnTest() {
+
+        // verificacao
+        assertThat( Isbn.toKeyOrNull("9780306406158") ).isNull();
+        assertThat( Isbn.toKeyOrNull("0306406153") ).isNull();
+        assertThat( Isbn.toKeyOrNull("123") ).isNull();
+        assertThat( Isbn.toKeyOrNull( Isbn.withCheckDigit(977030640615l) ) ).isNull();
+        assertThat( Isbn.toKeyOrNull( Isbn.withCheckDigit(979030640615l) ) ).isNotNull();
+        assertThat( Isbn.toKeyOrNull(null) ).isNull();
+        assertThat( Assertions.catchThrowable( () -> Isbn.toKey("abc") ) )
+                .isInstanceOf(BusinessException.class)
+                .hasMessage("Isbn inválido.");
+    }
+
+    @Test
+    @DisplayName("Deve manter as chaves encontráveis após remoções no mapa de chaves long.")
+    public void longHashMapTest() {
+
+        // cenario
+        LongHashMap<String> map = new LongHashMap<>(4);
+        for ( long key = 1; key <= 1000; key++ ) {
+            map.put(key, "v" + key);
+        }
+
+        // execucao
+        for ( long key = 1; key <= 1000; key += 2 ) {
+            map.remove(key);
+        }
+
+        // verificacao
+        assertThat( map.size() ).isEqualTo(500);
+        for ( long key = 1; key <= 1000; key++ ) {
+            assertThat( map.get(key) ).isEqualTo( key % 2 == 0 ? "v" + key : null );
+        }
+    }
+}
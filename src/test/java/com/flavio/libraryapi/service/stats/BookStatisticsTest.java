@@ -0,0 +1,79 @@
+package com.flavio.libraryapi.service.stats;
+
+import com.flavio.libraryapi.model.entity.Book;
+import com.flavio.libraryapi.service.event.BookEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookStatisticsTest {
+
+    List<Book> stored = new ArrayList<>();
+
+    BookStatistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        this.statistics = new BookStatistics(stored::forEach, 0);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        this.statistics.shutdown();
+    }
+
+    @Test
+    @DisplayName("Deve montar os contadores a partir do banco.")
+    public void rebuildTest() {
+
+        // cenario
+        stored.add( createBook(1l, "Fulano") );
+        stored.add( createBook(2l, "Ciclano") );
+        stored.add( createBook(3l, "Fulano") );
+
+        // execucao
+        statistics.rebuild();
+
+        // verificacao
+        assertThat( statistics.totalBooks() ).isEqualTo(3);
+        assertThat( statistics.totalAuthors() ).isEqualTo(2);
+        assertThat( statistics.countByAuthor("Fulano") ).isEqualTo(2);
+        assertThat( authors(statistics.topAuthors(10)) ).containsExactly("Fulano", "Ciclano");
+    }
+
+    @Test
+    @DisplayName("Deve atualizar os contadores a cada livro salvo, alterado ou excluído.")
+    public void incrementalUpdateTest() {
+
+        // cenario
+        statistics.onBookEvent( BookEvent.saved( createBook(1l, "Fulano") ) );
+        statistics.onBookEvent( BookEvent.saved( createBook(2l, "Fulano") ) );
+        statistics.onBookEvent( BookEvent.saved( createBook(3l, "Ciclano") ) );
+
+        // execucao
+        statistics.onBookEvent( BookEvent.updated( createBook(1l, "Ciclano") ) );
+        statistics.onBookEvent( BookEvent.updated( createBook(1l, "Ciclano") ) );
+        statistics.onBookEvent( BookEvent.deleted( Book.builder().id(2l).build() ) );
+
+        // verificacao
+        assertThat( statistics.totalBooks() ).isEqualTo(2);
+        assertThat( statistics.countByAuthor("Fulano") ).isEqualTo(0);
+        assertThat( statistics.countByAuthor("Ciclano") ).isEqualTo(2);
+        assertThat( authors(statistics.topAuthors(1)) ).containsExactly("Ciclano");
+    }
+
+    private static List<String> authors(List<BookStatistics.AuthorCount> counts) {
+        return counts.stream().map(BookStatistics.AuthorCount::getAuthor).collect(Collectors.toList());
+    }
+
+    private static Book createBook(Long id, String author) {
+        return Book.builder().id(id).author(author).title("Aventuras").build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.flavio.libraryapi.service.suggest;
+
+import com.flavio.libraryapi.model.entity.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookSuggestIndexTest {
+
+    List<Book> stored = new ArrayList<>();
+
+    BookSuggestIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        this.index = new BookSuggestIndex(stored::forEach, 10);
+    }
+
+    @Test
+    @DisplayName("Deve reconstruir o índice a partir do catálogo.")
+    public void rebuildTest() {
+
+        // cenario
+        stored.add( Book.builder().id(1l).title("As aventuras").author("Artur").build() );
+        stored.add( Book.builder().id(2l).title("Livro").author("Fulano").build() );
+
+        // execucao
+        index.rebuild();
+
+        // verificacao
+        assertThat( index.suggest("as", 10) ).containsExactly("As aventuras");
+        assertThat( index.suggest("fula", 10) ).containsExactly("Fulano");
+    }
+
+    @Test
+    @DisplayName("Deve retornar lista vazia para limite não positivo.")
+    public void nonPositiveLimitTest() {
+
+        // cenario
+        stored.add( Book.builder().id(1l).title("As aventuras").author("Artur").build() );
+        index.rebuild();
+
+        // execucao e verificacao
+        assertThat( index.suggest("as", -1) ).isEmpty();
+        assertThat( index.suggest("as", 0) ).isEmpty();
+    }
+}
@@ -0,0 +1,95 @@
+package com.flavio.libraryapi.service.suggest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PrefixTrieTest {
+
+    @Test
+    @DisplayName("Deve sugerir os termos mais frequentes pelo prefixo.")
+    public void findByPrefixTest() {
+
+        // cenario
+        PrefixTrie trie = new PrefixTrie(10);
+        trie.add("as aventuras", "As aventuras");
+        trie.add("as aventuras 2", "As aventuras 2");
+        trie.add("as aventuras 2", "As aventuras 2");
+        trie.add("artur", "Artur");
+
+        // execucao
+        List<String> suggestions = trie.find("as", 10);
+
+        // verificacao
+        assertThat( suggestions ).containsExactly("As aventuras 2", "As aventuras");
+    }
+
+    @Test
+    @DisplayName("Deve deixar de sugerir um termo removido.")
+    public void removeTest() {
+
+        // cenario
+        PrefixTrie trie = new PrefixTrie(10);
+        trie.add("artur", "Artur");
+        trie.add("arthur", "Arthur");
+        trie.find("ar", 10);
+
+        // execucao
+        trie.remove("artur");
+
+        // verificacao
+        assertThat( trie.find("ar", 10) ).containsExactly("Arthur");
+        assertThat( trie.find("artu", 10) ).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve achar termos por prefixos que terminam no meio de uma aresta.")
+    public void findInsideEdgeTest() {
+
+        // cenario
+        PrefixTrie trie = new PrefixTrie(10);
+        trie.add("arthur", "Arthur");
+        trie.add("artur", "Artur");
+        trie.add("ar", "Ar");
+        trie.add("bia", "Bia");
+
+        // execucao / verificacao
+        assertThat( trie.find("a", 10) ).containsExactly("Ar", "Arthur", "Artur");
+        assertThat( trie.find("arth", 10) ).containsExactly("Arthur");
+        assertThat( trie.find("artx", 10) ).isEmpty();
+        assertThat( trie.find("arthurs", 10) ).isEmpty();
+        assertThat( trie.find("b", 10) ).containsExactly("Bia");
+    }
+
+    @Test
+    @DisplayName("Deve manter as sugestões ao juntar arestas depois de uma remoção.")
+    public void removeMergesEdgesTest() {
+
+        // cenario
+        PrefixTrie trie = new PrefixTrie(10);
+        trie.add("arthur", "Arthur");
+        trie.add("artur", "Artur");
+        trie.add("art", "Art");
+
+        // execucao
+        trie.remove("art");
+        trie.remove("artur");
+        trie.remove("arth");
+
+        // verificacao
+        assertThat( trie.find("ar", 10) ).containsExactly("Arthur");
+        assertThat( trie.find("arthur", 10) ).containsExactly("Arthur");
+
+        trie.add("artur", "Artur");
+        assertThat( trie.find("art", 10) ).containsExactly("Arthur", "Artur");
+    }
+
+    @Test
+    @DisplayName("Deve normalizar acentos, espaços e caixa.")
+    public void normalizeTest() {
+        assertThat( BookSuggestIndex.normalize("  O  Cortiço ") ).isEqualTo("o cortico");
+    }
+}